@@ -0,0 +1,34 @@
+#!/bin/sh
+# Time-to-first-request of the plain and fast-start images.
+# Needs Docker and a reachable Postgres; pass its settings as env, e.g.
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://host.docker.internal:5432/buddy ./scripts/measure-startup.sh
+# "First request" = first HTTP response of any status from the app.
+set -e
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-3}
+PORT=${PORT:-18080}
+
+docker build -q --target plain -t chatbot:plain . >/dev/null
+docker build -q -t chatbot:fast . >/dev/null
+
+now_ms() { date +%s%3N; }
+
+measure() {
+    image=$1
+    start=$(now_ms)
+    cid=$(docker run -d --rm -p "$PORT:8080" \
+        -e SPRING_DATASOURCE_URL -e SPRING_DATASOURCE_USERNAME -e SPRING_DATASOURCE_PASSWORD \
+        "$image")
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health")" != "000" ]; do
+        sleep 0.05
+    done
+    end=$(now_ms)
+    docker stop "$cid" >/dev/null
+    echo "$image: $((end - start)) ms"
+}
+
+for i in $(seq "$RUNS"); do
+    measure chatbot:plain
+    measure chatbot:fast
+done
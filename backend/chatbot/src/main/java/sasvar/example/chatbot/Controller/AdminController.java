@@ -0,0 +1,153 @@
+package sasvar.example.chatbot.Controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import sasvar.example.chatbot.Service.ProjectBulkService;
+import sasvar.example.chatbot.Service.ResumeBulkImportService;
+import sasvar.example.chatbot.Utils.AdminAccess;
+import sasvar.example.chatbot.Utils.SlowRequestLog;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Operator endpoints; every call requires an account listed in app.admin.emails
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AdminAccess adminAccess;
+    private final ProjectBulkService projectBulkService;
+    private final ResumeBulkImportService resumeBulkImportService;
+    private final SlowRequestLog slowRequestLog;
+
+    public AdminController(AdminAccess adminAccess,
+                           ProjectBulkService projectBulkService,
+                           ResumeBulkImportService resumeBulkImportService,
+                           SlowRequestLog slowRequestLog) {
+        this.adminAccess = adminAccess;
+        this.projectBulkService = projectBulkService;
+        this.resumeBulkImportService = resumeBulkImportService;
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    /**
+     * Bulk project import. Body: NDJSON, one project per line, same fields as POST /api/projects
+     * plus optional "email" (owner; defaults to the caller), "createdAt" (ISO instant) and
+     * "status" (ACTIVE | COMPLETED). Bad lines are skipped and reported; the rest are imported.
+     */
+    @PostMapping(path = "/projects/import", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> importProjects(HttpServletRequest request) {
+        if (!adminAccess.isCurrentUserAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Admin only"));
+        }
+
+        try {
+            ProjectBulkService.ImportReport report =
+                    projectBulkService.importNdjson(request.getInputStream(), adminAccess.currentEmail());
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("imported", report.imported());
+            resp.put("failed", report.failed());
+            resp.put("errors", report.errors());
+            resp.put("elapsedMs", report.elapsedMs());
+            resp.put("rowsPerSecond", report.rowsPerSecond());
+            return ResponseEntity.ok(resp);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Project import failed: " + e.getMessage()));
+        }
+    }
+
+    // Every project as NDJSON, streamed from a DB cursor; the output can be fed back to /projects/import
+    @GetMapping("/projects/export")
+    public ResponseEntity<?> exportProjects() {
+        if (!adminAccess.isCurrentUserAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Admin only"));
+        }
+
+        StreamingResponseBody body = projectBulkService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"projects.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Bulk resume import. Body: a zip of .pdf/.txt resumes (optional manifest.ndjson with
+     * "file", "email", "name", "year", "department", "institution", "availability"), or NDJSON
+     * with one resume per line ("email", "resumeText" or base64 "resumePdf", same optional fields).
+     * The body is staged and parsed in the background; poll GET /resumes/import/{runId}.
+     */
+    @PostMapping(path = "/resumes/import", consumes = {"application/zip", "application/x-zip-compressed",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE, "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> importResumes(HttpServletRequest request) {
+        if (!adminAccess.isCurrentUserAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Admin only"));
+        }
+
+        try {
+            String contentType = request.getContentType() == null ? "" : request.getContentType();
+            boolean zip = contentType.contains("zip") || contentType.startsWith(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            ResumeBulkImportService.StageReport report = zip
+                    ? resumeBulkImportService.stageZip(request.getInputStream(), adminAccess.currentEmail())
+                    : resumeBulkImportService.stageNdjson(request.getInputStream(), adminAccess.currentEmail());
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("runId", report.runId());
+            resp.put("staged", report.staged());
+            resp.put("rejected", report.rejected());
+            resp.put("errors", report.errors());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(resp);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Resume import failed: " + e.getMessage()));
+        }
+    }
+
+    // Progress of a resume import: counts per item status, throughput, Gemini calls and failures
+    @GetMapping("/resumes/import/{runId}")
+    public ResponseEntity<?> resumeImportStatus(@PathVariable Long runId) {
+        if (!adminAccess.isCurrentUserAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Admin only"));
+        }
+
+        Map<String, Object> report = resumeBulkImportService.report(runId);
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Import run not found"));
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    // Continue a PAUSED (or interrupted) import from its last checkpoint
+    @PostMapping("/resumes/import/{runId}/resume")
+    public ResponseEntity<?> resumeImport(@PathVariable Long runId,
+                                          @RequestParam(defaultValue = "false") boolean retryFailed) {
+        if (!adminAccess.isCurrentUserAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Admin only"));
+        }
+
+        if (!resumeBulkImportService.resume(runId, retryFailed)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Import run not found"));
+        }
+        return ResponseEntity.accepted().body(resumeBulkImportService.report(runId));
+    }
+
+    // Slowest recent requests (over server-timing.slow-threshold-ms) with their phase breakdown
+    @GetMapping("/slow-requests")
+    public ResponseEntity<?> slowRequests(@RequestParam(defaultValue = "50") int limit) {
+        if (!adminAccess.isCurrentUserAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Admin only"));
+        }
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("thresholdMs", slowRequestLog.thresholdMs());
+        resp.put("requests", slowRequestLog.slowest(Math.max(1, limit)));
+        return ResponseEntity.ok(resp);
+    }
+}
@@ -1,15 +1,24 @@
 package sasvar.example.chatbot.Controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import sasvar.example.chatbot.Database.User;
+import sasvar.example.chatbot.Exception.GeminiUnavailableException;
+import sasvar.example.chatbot.Exception.InvalidResumeException;
 import sasvar.example.chatbot.Repository.UserRepository;
 import sasvar.example.chatbot.Utils.JwtUtils;
+import sasvar.example.chatbot.Utils.ServerTiming;
 import sasvar.example.chatbot.Service.ChatBotService;
+import sasvar.example.chatbot.Service.PdfTextExtractor;
+import sasvar.example.chatbot.Service.ResumeEnrichmentService;
+import sasvar.example.chatbot.Service.ResumeStorageService;
 import sasvar.example.chatbot.Database.JsonData;
 
 import java.util.HashMap;
@@ -24,6 +33,9 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final ChatBotService chatBotService;
+    private final ResumeStorageService resumeStorageService;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final ResumeEnrichmentService resumeEnrichmentService;
 
     // REVERTED: single JSON register endpoint (no multipart / file handling)
     @PostMapping(path = "/register", consumes = "application/json")
@@ -53,14 +65,14 @@ public class AuthController {
 
             User user = new User();
             user.setEmail(email);
-            user.setPassword(passwordEncoder.encode(password));
+            user.setPassword(ServerTiming.time("bcrypt", () -> passwordEncoder.encode(password)));
             userRepository.save(user);
 
             JsonData savedProfile;
             try {
                 String parsedJson = "{}";
                 if (resumeText != null && !resumeText.isBlank()) {
-                    parsedJson = chatBotService.convertJSON(resumeText);
+                    parsedJson = resumeEnrichmentService.initialJson(resumeText);
                 }
 
                 // Decode base64 PDF to bytes
@@ -85,6 +97,9 @@ public class AuthController {
                         pdfBytes
                 );
 
+            } catch (GeminiUnavailableException e) {
+                try { userRepository.delete(user); } catch (Exception ignored) {}
+                return parserBusy(e);
             } catch (Exception e) {
                 try { userRepository.delete(user); } catch (Exception ignored) {}
                 e.printStackTrace();
@@ -92,9 +107,13 @@ public class AuthController {
                         .body(Map.of("message", "Failed to parse and save resume during registration"));
             }
 
-            try { chatBotService.sendResumeJson(savedProfile); } catch (Exception ignored) {}
+            // full Gemini parse is merged in the background (and then sent to Django)
+            boolean parsing = resumeEnrichmentService.enrichLater(savedProfile, resumeText);
+            if (!parsing) {
+                try { chatBotService.sendResumeJson(savedProfile); } catch (Exception ignored) {}
+            }
 
-            String token = jwtUtils.generateToken(user.getEmail());
+            String token = ServerTiming.time("jwt", () -> jwtUtils.generateToken(user.getEmail()));
 
             Map<String, Object> resp = new HashMap<>();
             resp.put("message", "Registered successfully");
@@ -111,6 +130,7 @@ public class AuthController {
                 if (savedProfile.getResumePdf() != null) {
                     profile.put("resumePdfUrl", "/api/resume/download/" + savedProfile.getId());
                 }
+                profile.put("parseStatus", parsing ? "PENDING" : "COMPLETE");
                 resp.put("profile", profile);
             }
 
@@ -120,6 +140,108 @@ public class AuthController {
         }
     }
 
+    // Multipart register: same fields as the JSON endpoint, but resumePdf is a file part
+    // streamed into storage rather than a base64 string. resumeText may be omitted when
+    // a PDF is sent — it is then extracted on the server.
+    @PostMapping(path = "/register", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> registerMultipart(
+            @RequestParam(value = "email", required = false) String email,
+            @RequestParam(value = "password", required = false) String password,
+            @RequestParam(value = "resumeText", required = false) String resumeText,
+            @RequestPart(value = "resumePdf", required = false) MultipartFile resumePdf,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "year", required = false) String year,
+            @RequestParam(value = "department", required = false) String department,
+            @RequestParam(value = "institution", required = false) String institution,
+            @RequestParam(value = "availability", required = false) String availability) {
+
+        if (email == null || email.isBlank() || password == null || password.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Email and password required"));
+        }
+
+        if (userRepository.findByEmail(email).isPresent()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "User already exists"));
+        }
+
+        boolean pdfPresent = resumePdf != null && !resumePdf.isEmpty();
+        if ((resumeText == null || resumeText.isBlank()) && !pdfPresent) {
+            return ResponseEntity.badRequest().body(Map.of("message", "resumeText or resumePdf is required"));
+        }
+
+        // extract before the user row exists, so a bad PDF needs no rollback
+        if (resumeText == null || resumeText.isBlank()) {
+            try {
+                resumeText = pdfTextExtractor.extractText(resumePdf);
+            } catch (InvalidResumeException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            } catch (Exception e) {
+                e.printStackTrace();
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("message", "Failed to read resume PDF"));
+            }
+        }
+
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword(ServerTiming.time("bcrypt", () -> passwordEncoder.encode(password)));
+        userRepository.save(user);
+
+        JsonData savedProfile;
+        boolean hasPdf = false;
+        try {
+            String parsedJson = resumeEnrichmentService.initialJson(resumeText);
+
+            savedProfile = chatBotService.saveJsonForEmail(
+                    parsedJson, email, name, year, department, institution, availability,
+                    null
+            );
+
+            if (pdfPresent) {
+                savedProfile.setResumeSha256(resumeStorageService.store(savedProfile.getId(), resumePdf));
+                hasPdf = true;
+            }
+        } catch (InvalidResumeException e) {
+            try { chatBotService.deleteProfileByEmail(email); } catch (Exception ignored) {}
+            try { userRepository.delete(user); } catch (Exception ignored) {}
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (GeminiUnavailableException e) {
+            try { chatBotService.deleteProfileByEmail(email); } catch (Exception ignored) {}
+            try { userRepository.delete(user); } catch (Exception ignored) {}
+            return parserBusy(e);
+        } catch (Exception e) {
+            try { chatBotService.deleteProfileByEmail(email); } catch (Exception ignored) {}
+            try { userRepository.delete(user); } catch (Exception ignored) {}
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to parse and save resume during registration"));
+        }
+
+        boolean parsing = resumeEnrichmentService.enrichLater(savedProfile, resumeText);
+        if (!parsing) {
+            try { chatBotService.sendResumeJson(savedProfile); } catch (Exception ignored) {}
+        }
+
+        String token = ServerTiming.time("jwt", () -> jwtUtils.generateToken(user.getEmail()));
+
+        Map<String, Object> profile = new HashMap<>();
+        profile.put("email", savedProfile.getEmail());
+        profile.put("name", savedProfile.getName());
+        profile.put("year", savedProfile.getYear());
+        profile.put("department", savedProfile.getDepartment());
+        profile.put("institution", savedProfile.getInstitution());
+        profile.put("availability", savedProfile.getAvailability());
+        if (hasPdf) {
+            profile.put("resumePdfUrl", "/api/resume/download/" + savedProfile.getId());
+        }
+        profile.put("parseStatus", parsing ? "PENDING" : "COMPLETE");
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("message", "Registered successfully");
+        resp.put("token", token);
+        resp.put("profile", profile);
+        return ResponseEntity.ok(resp);
+    }
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
 
@@ -139,14 +261,14 @@ public class AuthController {
                         )
                 );
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!ServerTiming.time("bcrypt", () -> passwordEncoder.matches(password, user.getPassword()))) {
             throw new ResponseStatusException(
                     HttpStatus.UNAUTHORIZED,
                     "Password mismatch"
             );
         }
 
-        String token = jwtUtils.generateToken(user.getEmail());
+        String token = ServerTiming.time("jwt", () -> jwtUtils.generateToken(user.getEmail()));
 
         // fetch profile stored during registration (if any)
         JsonData profile = chatBotService.getProfileByEmail(email);
@@ -171,4 +293,11 @@ public class AuthController {
 
         return ResponseEntity.ok(resp);
     }
+
+    // 503 + Retry-After when Gemini is throttling us; the half-created user is rolled back
+    private ResponseEntity<?> parserBusy(GeminiUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
+    }
 }
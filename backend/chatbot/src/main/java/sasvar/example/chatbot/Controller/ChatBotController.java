@@ -5,8 +5,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import sasvar.example.chatbot.Service.ChatBotService;
+import sasvar.example.chatbot.Service.PdfTextExtractor;
+import sasvar.example.chatbot.Service.ResumeEnrichmentService;
+import sasvar.example.chatbot.Service.ResumeStorageService;
 import sasvar.example.chatbot.Database.JsonData;
+import sasvar.example.chatbot.Exception.GeminiUnavailableException;
+import sasvar.example.chatbot.Exception.InvalidResumeException;
 import sasvar.example.chatbot.Exception.ProfileNotFoundException;
 
 import java.util.HashMap;
@@ -17,9 +23,18 @@ import java.util.Map;
 public class ChatBotController {
 
     private final ChatBotService chatBotService;
-
-    public ChatBotController(ChatBotService chatBotService) {
+    private final ResumeStorageService resumeStorageService;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final ResumeEnrichmentService resumeEnrichmentService;
+
+    public ChatBotController(ChatBotService chatBotService,
+                             ResumeStorageService resumeStorageService,
+                             PdfTextExtractor pdfTextExtractor,
+                             ResumeEnrichmentService resumeEnrichmentService) {
         this.chatBotService = chatBotService;
+        this.resumeStorageService = resumeStorageService;
+        this.pdfTextExtractor = pdfTextExtractor;
+        this.resumeEnrichmentService = resumeEnrichmentService;
     }
 
     /**
@@ -34,7 +49,7 @@ public class ChatBotController {
      *   "availability": "low|medium|high"
      * }
      */
-    @PostMapping("/upload")
+    @PostMapping(path = "/upload", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> uploadResume(@RequestBody Map<String, Object> request) {
         try {
             String resumeText = (String) request.get("resumeText");
@@ -54,7 +69,7 @@ public class ChatBotController {
 
             String json = "{}";
             if (resumeText != null && !resumeText.isBlank()) {
-                json = chatBotService.convertJSON(resumeText);
+                json = resumeEnrichmentService.initialJson(resumeText);
             }
 
             // Decode base64 PDF to bytes
@@ -72,6 +87,8 @@ public class ChatBotController {
                     json, email, name, year, department, institution, availability,
                     pdfBytes
             );
+            // full Gemini parse is merged in the background (and then sent to Django)
+            boolean parsing = resumeEnrichmentService.enrichLater(saved, resumeText);
 
             Map<String, Object> profile = new HashMap<>();
             profile.put("email", saved.getEmail());
@@ -84,10 +101,90 @@ public class ChatBotController {
             if (saved.getResumePdf() != null) {
                 profile.put("resumePdfUrl", "/api/resume/download/" + saved.getId());
             }
+            profile.put("parseStatus", parsing ? "PENDING" : "COMPLETE");
 
-            try { chatBotService.sendResumeJson(saved); } catch (Exception ignored) {}
+            if (!parsing) {
+                try { chatBotService.sendResumeJson(saved); } catch (Exception ignored) {}
+            }
 
             return ResponseEntity.ok(profile);
+        } catch (GeminiUnavailableException e) {
+            return parserBusy(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to upload and parse resume"));
+        }
+    }
+
+    /**
+     * Multipart variant of /upload. The PDF arrives as a file part and is streamed
+     * into storage (size-capped, hashed on the fly) instead of as base64 inside JSON.
+     * If resumeText is omitted it is extracted from the PDF on the server.
+     * Form fields: resumeText, name, year, department, institution, availability
+     * File part:   resumePdf
+     */
+    @PostMapping(path = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadResumeMultipart(
+            @RequestParam(value = "resumeText", required = false) String resumeText,
+            @RequestPart(value = "resumePdf", required = false) MultipartFile resumePdf,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "year", required = false) String year,
+            @RequestParam(value = "department", required = false) String department,
+            @RequestParam(value = "institution", required = false) String institution,
+            @RequestParam(value = "availability", required = false) String availability) {
+        try {
+            var auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+            if (auth == null || auth.getName() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
+            }
+            String email = auth.getName();
+
+            // resumeText is optional here: when only the PDF is sent, extract it server-side
+            if ((resumeText == null || resumeText.isBlank()) && resumePdf != null && !resumePdf.isEmpty()) {
+                resumeText = pdfTextExtractor.extractText(resumePdf);
+            }
+
+            String json = "{}";
+            if (resumeText != null && !resumeText.isBlank()) {
+                json = resumeEnrichmentService.initialJson(resumeText);
+            }
+
+            JsonData saved = chatBotService.saveJsonForEmail(
+                    json, email, name, year, department, institution, availability,
+                    null
+            );
+
+            boolean hasPdf = false;
+            if (resumePdf != null && !resumePdf.isEmpty()) {
+                saved.setResumeSha256(resumeStorageService.store(saved.getId(), resumePdf));
+                hasPdf = true;
+            }
+            boolean parsing = resumeEnrichmentService.enrichLater(saved, resumeText);
+
+            Map<String, Object> profile = new HashMap<>();
+            profile.put("email", saved.getEmail());
+            profile.put("name", saved.getName());
+            profile.put("year", saved.getYear());
+            profile.put("department", saved.getDepartment());
+            profile.put("institution", saved.getInstitution());
+            profile.put("availability", saved.getAvailability());
+            if (hasPdf) {
+                profile.put("resumePdfUrl", "/api/resume/download/" + saved.getId());
+                profile.put("resumeSha256", saved.getResumeSha256());
+            }
+            profile.put("parseStatus", parsing ? "PENDING" : "COMPLETE");
+
+            if (!parsing) {
+                try { chatBotService.sendResumeJson(saved); } catch (Exception ignored) {}
+            }
+
+            return ResponseEntity.ok(profile);
+        } catch (InvalidResumeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (GeminiUnavailableException e) {
+            return parserBusy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
         } catch (Exception e) {
@@ -110,6 +207,8 @@ public class ChatBotController {
             profile.put("institution", data.getInstitution());
             profile.put("availability", data.getAvailability());
             profile.put("Resume", data.getProfileJson());
+            profile.put("parseStatus", chatBotService.isHeuristicOnly(data) ? "PENDING" : "COMPLETE");
+            profile.put("reputation", chatBotService.getReputation(data.getEmail()));
             // Return PDF download URL instead of base64
             if (data.getResumePdf() != null) {
                 profile.put("resumePdfUrl", "/api/resume/download/" + data.getId());
@@ -190,7 +289,7 @@ public class ChatBotController {
      *   "resumePdf": "base64..."
      * }
      */
-    @PutMapping("/resume/update")
+    @PutMapping(path = "/resume/update", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> updateResume(@RequestBody Map<String, Object> request) {
         try {
             String resumeText = (String) request.get("resumeText");
@@ -249,6 +348,8 @@ public class ChatBotController {
         } catch (ProfileNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("message", "Profile not found. Please upload a resume first."));
+        } catch (GeminiUnavailableException e) {
+            return parserBusy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
         } catch (Exception e) {
@@ -258,6 +359,81 @@ public class ChatBotController {
         }
     }
 
+    /**
+     * Multipart variant of /resume/update — resumeText as a form field, resumePdf as a
+     * file part that is streamed into storage. resumeText falls back to server-side extraction.
+     */
+    @PutMapping(path = "/resume/update", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> updateResumeMultipart(
+            @RequestParam(value = "resumeText", required = false) String resumeText,
+            @RequestPart(value = "resumePdf", required = false) MultipartFile resumePdf) {
+        try {
+            var auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+            if (auth == null || auth.getName() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
+            }
+            String email = auth.getName();
+
+            if ((resumeText == null || resumeText.isBlank()) && resumePdf != null && !resumePdf.isEmpty()) {
+                resumeText = pdfTextExtractor.extractText(resumePdf);
+            }
+
+            String json = "{}";
+            if (resumeText != null && !resumeText.isBlank()) {
+                json = chatBotService.convertJSON(resumeText);
+            }
+
+            // PDF is written separately below, so pass null to keep the stored one untouched
+            JsonData updated = chatBotService.updateResumeForEmail(json, email, null);
+
+            if (resumePdf != null && !resumePdf.isEmpty()) {
+                updated.setResumeSha256(resumeStorageService.store(updated.getId(), resumePdf));
+            }
+
+            Map<String, Object> profile = new HashMap<>();
+            profile.put("id", updated.getId());
+            profile.put("email", updated.getEmail());
+            profile.put("name", updated.getName());
+            profile.put("year", updated.getYear());
+            profile.put("department", updated.getDepartment());
+            profile.put("institution", updated.getInstitution());
+            profile.put("availability", updated.getAvailability());
+            if (updated.getResumeSha256() != null) {
+                profile.put("resumePdfUrl", "/api/resume/download/" + updated.getId());
+                profile.put("resumeSha256", updated.getResumeSha256());
+            }
+
+            try {
+                chatBotService.sendResumeJson(updated);
+            } catch (Exception ignored) {}
+
+            return ResponseEntity.ok(Map.of(
+                    "message", "Resume updated successfully",
+                    "profile", profile
+            ));
+        } catch (ProfileNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Profile not found. Please upload a resume first."));
+        } catch (InvalidResumeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (GeminiUnavailableException e) {
+            return parserBusy(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to update resume"));
+        }
+    }
+
+    // 503 + Retry-After when Gemini is throttling us, so clients back off instead of storing "{}"
+    private ResponseEntity<?> parserBusy(GeminiUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
+    }
+
     @GetMapping("/profile/{id}")
     public ResponseEntity<?> getUserProfileById(@PathVariable Long id) {
         try {
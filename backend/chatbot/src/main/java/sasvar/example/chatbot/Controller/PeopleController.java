@@ -0,0 +1,64 @@
+package sasvar.example.chatbot.Controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sasvar.example.chatbot.Service.PeopleSearchService;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/people")
+public class PeopleController {
+
+    private final PeopleSearchService peopleSearchService;
+
+    public PeopleController(PeopleSearchService peopleSearchService) {
+        this.peopleSearchService = peopleSearchService;
+    }
+
+    /**
+     * Find teammates by what their parsed resume says.
+     * GET /api/people/search?skills=java,react&level=intermediate&domain=ml_ai:advanced
+     *                       &availability=high&department=CSE&institution=...&after=123&limit=20
+     * skills: all must match. domain: repeatable "area:level" against experience_level.by_domain.
+     * Response: { "items": [...summaries...], "nextCursor": id | null } — pass nextCursor as ?after=.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(name = "skills", required = false) List<String> skills,
+                                    @RequestParam(name = "level", required = false) String level,
+                                    @RequestParam(name = "domain", required = false) List<String> domain,
+                                    @RequestParam(name = "availability", required = false) String availability,
+                                    @RequestParam(name = "department", required = false) String department,
+                                    @RequestParam(name = "institution", required = false) String institution,
+                                    @RequestParam(name = "after", required = false) Long after,
+                                    @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        Map<String, String> byDomain = new LinkedHashMap<>();
+        if (domain != null) {
+            for (String d : domain) {
+                int sep = d.indexOf(':');
+                if (sep <= 0 || sep == d.length() - 1) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("message", "domain must look like area:level, e.g. ml_ai:advanced"));
+                }
+                byDomain.put(d.substring(0, sep), d.substring(sep + 1));
+            }
+        }
+
+        try {
+            PeopleSearchService.Page page = peopleSearchService.search(
+                    skills, level, byDomain, availability, department, institution, after, limit);
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("items", page.items());
+            resp.put("nextCursor", page.nextCursor());
+            return ResponseEntity.ok(resp);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to search people"));
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package sasvar.example.chatbot.Controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import sasvar.example.chatbot.Database.ProjectData;
+import sasvar.example.chatbot.Dto.ProjectFeedItem;
+import sasvar.example.chatbot.Dto.ProjectRecord;
+import sasvar.example.chatbot.Service.ExploreFeedSnapshot;
 import sasvar.example.chatbot.Service.ProjectService;
 import sasvar.example.chatbot.Service.ProjectTeamService;
+import sasvar.example.chatbot.Service.RatingService;
 import sasvar.example.chatbot.Database.ProjectTeamRequest;
 import sasvar.example.chatbot.Database.ProjectTeam;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -16,12 +27,23 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/projects")
 public class ProjectController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // shared writer for streamed exports; flushing is left to the generator buffer
+    private static final ObjectMapper FEED_MAPPER = new ObjectMapper()
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
     private final ProjectService projectService;
     private final ProjectTeamService projectTeamService;
+    private final RatingService ratingService;
+    private final ExploreFeedSnapshot exploreFeedSnapshot;
 
-    public ProjectController(ProjectService projectService, ProjectTeamService projectTeamService) {
+    public ProjectController(ProjectService projectService, ProjectTeamService projectTeamService,
+                             RatingService ratingService, ExploreFeedSnapshot exploreFeedSnapshot) {
         this.projectService = projectService;
         this.projectTeamService = projectTeamService;
+        this.ratingService = ratingService;
+        this.exploreFeedSnapshot = exploreFeedSnapshot;
     }
 
     /**
@@ -41,50 +63,24 @@ public class ProjectController {
     @PostMapping
     public ResponseEntity<?> createProject(@RequestBody Map<String, Object> body) {
         try {
-            String title = (String) body.get("title");
-            String type = (String) body.get("type");
-            String visibility = (String) body.get("visibility");
-
-            // Accept several possible keys for incoming lists/arrays/strings
-            Object reqSkillsObj = body.get("requiredSkills");
-            if (reqSkillsObj == null) reqSkillsObj = body.get("required_skills");
-
-            Object prefTechObj = body.get("preferredTechnologies");
-            if (prefTechObj == null) prefTechObj = body.get("preferred_technologies");
-            if (prefTechObj == null) prefTechObj = body.get("preferredSkills");
-            if (prefTechObj == null) prefTechObj = body.get("preferred_skills");
-
-            Object domainObj = body.get("domain");
-            if (domainObj == null) domainObj = body.get("domains");
-            if (domainObj == null) domainObj = body.get("projectDomains");
-            if (domainObj == null) domainObj = body.get("domain_list");
-
-            String githubRepo = body.getOrDefault("githubRepo", "").toString();
-            String description = body.get("description") == null ? "" : body.get("description").toString();
+            // same key variants and CSV normalization as the admin NDJSON import
+            ProjectRecord input = ProjectRecord.from(body);
 
             // basic validation
-            if (title == null || title.isBlank()
-                    || type == null || type.isBlank()
-                    || visibility == null || visibility.isBlank()
-                    || reqSkillsObj == null) {
+            if (!input.hasRequiredFields()) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("message", "Missing required fields"));
             }
 
-            // normalize inputs to CSV using helper
-            String requiredSkillsCsv = toCsv(reqSkillsObj);
-            String preferredTechCsv = prefTechObj == null ? "" : toCsv(prefTechObj);
-            String domainCsv = domainObj == null ? "" : toCsv(domainObj);
-
             ProjectData saved = projectService.createProject(
-                    title,
-                    type,
-                    visibility,
-                    requiredSkillsCsv,
-                    githubRepo,
-                    description,
-                    domainCsv,                 // pass normalized domain CSV
-                    preferredTechCsv           // pass normalized preferred technologies CSV
+                    input.title(),
+                    input.type(),
+                    input.visibility(),
+                    input.requiredSkills(),
+                    input.githubRepo(),
+                    input.description(),
+                    input.domain(),                  // normalized domain CSV
+                    input.preferredTechnologies()    // normalized preferred technologies CSV
             );
 
             // return created project to frontend (include owner's email)
@@ -113,34 +109,6 @@ public class ProjectController {
         }
     }
 
-    // helper: accept List or String and return comma-separated CSV (trimmed)
-    private String toCsv(Object obj) {
-        if (obj == null) return "";
-        if (obj instanceof List) {
-            @SuppressWarnings("unchecked")
-            List<Object> list = (List<Object>) obj;
-            return list.stream()
-                    .map(Object::toString)
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .collect(Collectors.joining(","));
-        } else {
-            String s = obj.toString().trim();
-            // If the string looks like a JSON array: ["a","b"], try to clean it
-            if (s.startsWith("[") && s.endsWith("]")) {
-                s = s.substring(1, s.length() - 1);
-            }
-            // replace any occurrences of "], [" or "] , [" etc.
-            s = s.replace("],", ",").replace("],", ",");
-            // split by commas and re-join to normalize spacing/brackets
-            return Arrays.stream(s.split(","))
-                    .map(String::trim)
-                    .map(x -> x.replaceAll("^\\[|\\]$", "")) // strip stray brackets
-                    .filter(x -> !x.isEmpty())
-                    .collect(Collectors.joining(","));
-        }
-    }
-
     // list projects for current user
     @GetMapping
     public ResponseEntity<?> listMyProjects() {
@@ -176,30 +144,43 @@ public class ProjectController {
         }
     }
 
-    // explore feed — list ALL projects in DB (public)
-    @GetMapping("/explore")
-    public ResponseEntity<?> exploreProjects() {
+    // "My projects" dashboard: owned + joined projects with team size and pending
+    // request counts, and the user's incoming pending requests — one query, one call
+    @GetMapping("/dashboard")
+    public ResponseEntity<?> myDashboard() {
         try {
-            List<ProjectData> projects = projectService.listAllProjects();
-            List<Map<String, Object>> out = projects.stream().map(p -> {
-                Map<String, Object> m = new HashMap<>();
-                m.put("id", p.getId());
-                m.put("title", p.getTitle());
-                m.put("type", p.getType());
-                m.put("visibility", p.getVisibility());
-                m.put("requiredSkills", p.getRequiredSkills());
-                m.put("preferredTechnologies", p.getPreferredTechnologies()); // NEW
-                m.put("githubRepo", p.getGithubRepo());
-                m.put("description", p.getDescription());
-                m.put("domain", p.getDomain()); // include domain
-                m.put("createdAt", p.getCreatedAt());
-                m.put("status", p.getStatus()); // Include status
-                Map<String, Object> postedBy = new HashMap<>();
-                postedBy.put("email", p.getEmail());
+            return ResponseEntity.ok(projectService.getDashboardForCurrentUser());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "Unauthorized"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to load dashboard"));
+        }
+    }
 
-                m.put("postedBy", postedBy);// owner email
-                return m;
-            }).collect(Collectors.toList());
+    // explore feed — list ALL projects in DB (public); ?days=N limits it to the last N days,
+    // optional ?page=&size= return one page. Served from the pre-serialized snapshot once it is built.
+    @GetMapping("/explore")
+    public ResponseEntity<?> exploreProjects(@RequestParam(name = "days", required = false) Integer days,
+                                             @RequestParam(name = "page", required = false) Integer page,
+                                             @RequestParam(name = "size", required = false) Integer size) {
+        byte[] snapshot = exploreFeedSnapshot.render(days, page, size);
+        if (snapshot != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(snapshot);
+        }
+
+        try {
+            List<ProjectData> projects = (days != null && days > 0)
+                    ? projectService.listRecentProjects(days)
+                    : projectService.listAllProjects();
+            // same item shape and paging as the snapshot
+            List<ProjectFeedItem> out = projects.stream().map(ProjectFeedItem::from).collect(Collectors.toList());
+            if (page != null || size != null) {
+                int[] bounds = ExploreFeedSnapshot.pageBounds(out.size(), page, size);
+                out = out.subList(bounds[0], bounds[1]);
+            }
             return ResponseEntity.ok(out);
         } catch (Exception e) {
             e.printStackTrace();
@@ -208,6 +189,37 @@ public class ProjectController {
         }
     }
 
+    /**
+     * Streaming explore export — same items as /explore, written straight from a DB cursor.
+     * Heap use stays flat no matter how many projects exist.
+     * ?format=json (default) returns a JSON array, ?format=ndjson one object per line.
+     */
+    @GetMapping("/explore/stream")
+    public ResponseEntity<StreamingResponseBody> streamExploreProjects(
+            @RequestParam(name = "format", defaultValue = "json") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = FEED_MAPPER.getFactory().createGenerator(out)) {
+                gen.setRootValueSeparator(null);
+                if (!ndjson) gen.writeStartArray();
+                projectService.forEachProject(p -> {
+                    try {
+                        FEED_MAPPER.writeValue(gen, ProjectFeedItem.from(p));
+                        if (ndjson) gen.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) gen.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     // Send teammate request (owner initiates) — NEW behavior (previously immediately added)
     // Accept id as String and validate to avoid MethodArgumentTypeMismatch for "undefined"
     @PostMapping("/{id}/teammates")
@@ -244,6 +256,39 @@ public class ProjectController {
         }
     }
 
+    // Bulk invite: { "emails": ["a@x.com", "b@y.com", ...] } — one result per email
+    @PostMapping("/{id}/teammates/bulk")
+    public ResponseEntity<?> createTeammateRequests(@PathVariable("id") String projectIdStr,
+                                                    @RequestBody Map<String, Object> body) {
+        Long projectId = parseId(projectIdStr);
+        if (projectId == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid project id"));
+        }
+        if (!(body.get("emails") instanceof List<?> emails)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "emails must be a list"));
+        }
+
+        try {
+            List<String> targets = emails.stream().map(e -> e == null ? null : e.toString()).collect(Collectors.toList());
+            List<Map<String, Object>> results = projectTeamService.createTeammateRequests(projectId, targets);
+            long created = results.stream().filter(r -> "CREATED".equals(r.get("status"))).count();
+
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("projectId", projectId);
+            resp.put("created", created);
+            resp.put("results", results);
+            return ResponseEntity.ok(resp);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to create teammate requests"));
+        }
+    }
+
     // Target user accepts a teammate request
     // Accept request id as String and validate
     @PostMapping("/teammates/requests/{id}/accept")
@@ -287,11 +332,39 @@ public class ProjectController {
         }
     }
 
-    // List incoming teammate requests for current user
+    // Answer a RATING_REQUEST: { "score": 1-5, "comment": "..." } — returns the ratee's reputation
+    @PostMapping("/teammates/requests/{id}/rate")
+    public ResponseEntity<?> submitRating(@PathVariable("id") String requestIdStr,
+                                          @RequestBody Map<String, Object> body) {
+        Long requestId = parseId(requestIdStr);
+        if (requestId == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid request id"));
+        }
+        if (!(body.get("score") instanceof Number score)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Numeric score required"));
+        }
+        String comment = body.get("comment") == null ? null : body.get("comment").toString();
+
+        try {
+            Map<String, Object> reputation = ratingService.submitRating(requestId, score.intValue(), comment);
+            return ResponseEntity.ok(Map.of("message", "Rating submitted", "reputation", reputation));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to submit rating"));
+        }
+    }
+
+    // List incoming teammate requests for current user; ?days=N limits it to the last N days
     @GetMapping("/teammates/requests")
-    public ResponseEntity<?> listIncomingRequests() {
+    public ResponseEntity<?> listIncomingRequests(@RequestParam(name = "days", required = false) Integer days) {
         try {
-            List<ProjectTeamRequest> reqs = projectTeamService.listIncomingRequestsForCurrentUser();
+            List<ProjectTeamRequest> reqs = (days != null && days > 0)
+                    ? projectTeamService.listRecentIncomingRequestsForCurrentUser(days)
+                    : projectTeamService.listIncomingRequestsForCurrentUser();
             List<Map<String, Object>> out = reqs.stream().map(r -> {
                 Map<String, Object> m = new HashMap<>();
                 m.put("requestId", r.getId());
@@ -358,6 +431,26 @@ public class ProjectController {
         }
     }
 
+    // Top recommended teammates for a project (owner only), read from the maintained top-K list
+    @GetMapping("/{id}/candidates")
+    public ResponseEntity<?> getCandidates(@PathVariable("id") String projectIdStr,
+                                           @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        Long projectId = parseId(projectIdStr);
+        if (projectId == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid project id"));
+        }
+
+        try {
+            return ResponseEntity.ok(projectService.listCandidatesForProject(projectId, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to fetch candidates"));
+        }
+    }
+
     // Mark project as completed and delete from DB (owner only)
     @PostMapping("/{id}/complete")
     public ResponseEntity<?> completeProject(@PathVariable("id") String projectIdStr) {
@@ -8,6 +8,8 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "resume")
 @Data
@@ -41,6 +43,13 @@ public class JsonData {
     @JsonIgnore
     private byte[] resumePdf;
 
+    // SHA-256 (hex) and size in bytes of the stored resume PDF
+    @Column(name = "resume_sha256", length = 64)
+    private String resumeSha256;
+
+    @Column(name = "resume_size")
+    private Long resumeSize;
+
     @Column(nullable = false)
-    private String createdAt;
+    private Instant createdAt;
 }
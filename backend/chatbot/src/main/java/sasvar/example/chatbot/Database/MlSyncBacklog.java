@@ -0,0 +1,34 @@
+package sasvar.example.chatbot.Database;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// A resume/project send to the Django ML service that was skipped (breaker open)
+// or failed, kept until the replay job delivers it.
+@Entity
+@Table(name = "ml_sync_backlog",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"kind", "ref_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MlSyncBacklog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // RESUME | PROJECT
+    @Column(name = "kind", nullable = false, length = 20)
+    private String kind;
+
+    // resume.id or projects.id
+    @Column(name = "ref_id", nullable = false)
+    private Long refId;
+
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+}
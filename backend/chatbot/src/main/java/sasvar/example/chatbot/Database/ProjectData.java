@@ -9,7 +9,8 @@ import org.hibernate.annotations.ColumnDefault;
 import java.time.Instant;
 
 @Entity
-@Table(name = "projects")
+@Table(name = "projects",
+        indexes = @Index(name = "ix_projects_email", columnList = "email"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,9 +52,13 @@ public class ProjectData {
     private String email;
 
     @Column(name = "created_at")
-    private String createdAt = Instant.now().toString();
+    private Instant createdAt = Instant.now();
 
     @Column(name = "status", length = 20)
     @ColumnDefault("'ACTIVE'")
     private String status = "ACTIVE"; // Values: "ACTIVE", "COMPLETED"
+
+    // set when the owner completes the project; CompactionJob archives it after a grace period
+    @Column(name = "completed_at")
+    private Instant completedAt;
 }
@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Entity
-@Table(name = "project_team")
+@Table(name = "project_team",
+        uniqueConstraints = @UniqueConstraint(name = "uq_project_team_project_member",
+                columnNames = {"project_id", "member_email"}),
+        indexes = @Index(name = "ix_project_team_member_email", columnList = "member_email"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,5 +31,5 @@ public class ProjectTeam {
 
     // timestamp when member was added
     @Column(name = "added_at")
-    private String addedAt = Instant.now().toString();
+    private Instant addedAt = Instant.now();
 }
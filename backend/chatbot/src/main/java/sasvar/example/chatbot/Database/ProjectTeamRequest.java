@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Entity
-@Table(name = "project_team_request")
+@Table(name = "project_team_request",
+        indexes = @Index(name = "ix_project_team_request_target_status_type",
+                columnList = "target_email, status, type"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,8 +52,8 @@ public class ProjectTeamRequest {
     private String rateeName;
 
     @Column(name = "created_at")
-    private String createdAt = Instant.now().toString();
+    private Instant createdAt = Instant.now();
 
     @Column(name = "updated_at")
-    private String updatedAt = Instant.now().toString();
+    private Instant updatedAt = Instant.now();
 }
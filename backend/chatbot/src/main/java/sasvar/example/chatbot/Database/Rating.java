@@ -0,0 +1,42 @@
+package sasvar.example.chatbot.Database;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// One submitted teammate rating (1-5), created from a RATING_REQUEST
+@Entity
+@Table(name = "rating",
+        uniqueConstraints = @UniqueConstraint(name = "uq_rating_project_rater_ratee",
+                columnNames = {"project_id", "rater_email", "ratee_email"}),
+        indexes = @Index(name = "ix_rating_ratee_email", columnList = "ratee_email"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Rating {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "rater_email", nullable = false)
+    private String raterEmail;
+
+    @Column(name = "ratee_email", nullable = false)
+    private String rateeEmail;
+
+    @Column(nullable = false)
+    private Integer score;
+
+    @Column(columnDefinition = "TEXT")
+    private String comment;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+}
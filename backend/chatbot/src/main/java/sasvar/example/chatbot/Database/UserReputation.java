@@ -0,0 +1,43 @@
+package sasvar.example.chatbot.Database;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Running rating aggregates for one user; average and variance derive from these three numbers
+@Entity
+@Table(name = "user_reputation")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserReputation {
+
+    @Id
+    private String email;
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+
+    @Column(name = "rating_sum_sq", nullable = false)
+    private Long ratingSumSq;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public double average() {
+        return ratingCount == 0 ? 0 : (double) ratingSum / ratingCount;
+    }
+
+    // population variance: E[x^2] - E[x]^2
+    public double variance() {
+        if (ratingCount == 0) return 0;
+        double mean = average();
+        return Math.max(0, (double) ratingSumSq / ratingCount - mean * mean);
+    }
+}
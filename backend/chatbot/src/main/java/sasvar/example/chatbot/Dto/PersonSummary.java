@@ -0,0 +1,18 @@
+package sasvar.example.chatbot.Dto;
+
+import java.util.List;
+
+// One people-search hit: top-level profile fields only, never profile_json or the PDF.
+// skills is a short, lower-cased sample taken from the parsed resume.
+public record PersonSummary(
+        Long id,
+        String email,
+        String name,
+        String year,
+        String department,
+        String institution,
+        String availability,
+        String experienceLevel,
+        List<String> skills
+) {
+}
@@ -0,0 +1,32 @@
+package sasvar.example.chatbot.Dto;
+
+import java.util.List;
+
+// "My projects" dashboard: everything the UI previously fetched with one call per project.
+// Project fields use the same names as the /api/projects list items.
+public record ProjectDashboard(
+        List<Item> projects,
+        int ownedCount,
+        int joinedCount,
+        long incomingPendingRequests
+) {
+
+    public record Item(
+            Long id,
+            String title,
+            String type,
+            String visibility,
+            String requiredSkills,
+            String preferredTechnologies,
+            String githubRepo,
+            String description,
+            String domain,
+            String createdAt,
+            String status,
+            ProjectFeedItem.PostedBy postedBy,
+            String role,            // OWNER | MEMBER
+            long teamSize,
+            long pendingRequests    // open JOIN_REQUESTs sent for this project
+    ) {
+    }
+}
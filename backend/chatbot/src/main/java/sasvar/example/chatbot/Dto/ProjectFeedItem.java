@@ -0,0 +1,41 @@
+package sasvar.example.chatbot.Dto;
+
+import sasvar.example.chatbot.Database.ProjectData;
+
+// Read-only view of a project as it appears in the explore feed.
+// Field names match the map keys returned by /api/projects/explore.
+public record ProjectFeedItem(
+        Long id,
+        String title,
+        String type,
+        String visibility,
+        String requiredSkills,
+        String preferredTechnologies,
+        String githubRepo,
+        String description,
+        String domain,
+        String createdAt,
+        String status,
+        PostedBy postedBy
+) {
+
+    public record PostedBy(String email) {
+    }
+
+    public static ProjectFeedItem from(ProjectData p) {
+        return new ProjectFeedItem(
+                p.getId(),
+                p.getTitle(),
+                p.getType(),
+                p.getVisibility(),
+                p.getRequiredSkills(),
+                p.getPreferredTechnologies(),
+                p.getGithubRepo(),
+                p.getDescription(),
+                p.getDomain(),
+                p.getCreatedAt() == null ? null : p.getCreatedAt().toString(),
+                p.getStatus(),
+                new PostedBy(p.getEmail())
+        );
+    }
+}
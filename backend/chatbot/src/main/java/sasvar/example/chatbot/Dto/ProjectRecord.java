@@ -0,0 +1,113 @@
+package sasvar.example.chatbot.Dto;
+
+import sasvar.example.chatbot.Database.ProjectData;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Project fields as accepted by POST /api/projects and the admin NDJSON import/export.
+// List fields are held as normalized CSV, the way ProjectData stores them.
+// email / createdAt / status are only used by the admin import/export.
+public record ProjectRecord(
+        String title,
+        String type,
+        String visibility,
+        String requiredSkills,
+        String preferredTechnologies,
+        String githubRepo,
+        String description,
+        String domain,
+        String email,
+        String createdAt,
+        String status
+) {
+
+    // Read a request body / NDJSON line, accepting the same key variants as the create endpoint
+    public static ProjectRecord from(Map<String, Object> body) {
+        Object reqSkillsObj = first(body, "requiredSkills", "required_skills");
+        Object prefTechObj = first(body, "preferredTechnologies", "preferred_technologies",
+                "preferredSkills", "preferred_skills");
+        Object domainObj = first(body, "domain", "domains", "projectDomains", "domain_list");
+        Object githubRepo = body.get("githubRepo");
+        Object description = body.get("description");
+        Object email = first(body, "email", "ownerEmail");
+        Object createdAt = body.get("createdAt");
+        Object status = body.get("status");
+
+        return new ProjectRecord(
+                (String) body.get("title"),
+                (String) body.get("type"),
+                (String) body.get("visibility"),
+                reqSkillsObj == null ? null : toCsv(reqSkillsObj),
+                prefTechObj == null ? "" : toCsv(prefTechObj),
+                githubRepo == null ? "" : githubRepo.toString(),
+                description == null ? "" : description.toString(),
+                domainObj == null ? "" : toCsv(domainObj),
+                email == null ? null : email.toString(),
+                createdAt == null ? null : createdAt.toString(),
+                status == null ? null : status.toString()
+        );
+    }
+
+    public static ProjectRecord of(ProjectData p) {
+        return new ProjectRecord(
+                p.getTitle(),
+                p.getType(),
+                p.getVisibility(),
+                p.getRequiredSkills(),
+                p.getPreferredTechnologies(),
+                p.getGithubRepo(),
+                p.getDescription(),
+                p.getDomain(),
+                p.getEmail(),
+                p.getCreatedAt() == null ? null : p.getCreatedAt().toString(),
+                p.getStatus()
+        );
+    }
+
+    // title, type, visibility and requiredSkills are mandatory
+    public boolean hasRequiredFields() {
+        return title != null && !title.isBlank()
+                && type != null && !type.isBlank()
+                && visibility != null && !visibility.isBlank()
+                && requiredSkills != null;
+    }
+
+    // helper: accept List or String and return comma-separated CSV (trimmed)
+    public static String toCsv(Object obj) {
+        if (obj == null) return "";
+        if (obj instanceof List) {
+            @SuppressWarnings("unchecked")
+            List<Object> list = (List<Object>) obj;
+            return list.stream()
+                    .map(Object::toString)
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .collect(Collectors.joining(","));
+        } else {
+            String s = obj.toString().trim();
+            // If the string looks like a JSON array: ["a","b"], try to clean it
+            if (s.startsWith("[") && s.endsWith("]")) {
+                s = s.substring(1, s.length() - 1);
+            }
+            // replace any occurrences of "], [" or "] , [" etc.
+            s = s.replace("],", ",").replace("],", ",");
+            // split by commas and re-join to normalize spacing/brackets
+            return Arrays.stream(s.split(","))
+                    .map(String::trim)
+                    .map(x -> x.replaceAll("^\\[|\\]$", "")) // strip stray brackets
+                    .filter(x -> !x.isEmpty())
+                    .collect(Collectors.joining(","));
+        }
+    }
+
+    private static Object first(Map<String, Object> body, String... keys) {
+        for (String k : keys) {
+            Object v = body.get(k);
+            if (v != null) return v;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,16 @@
+package sasvar.example.chatbot.Exception;
+
+public class GeminiUnavailableException extends RuntimeException {
+
+    // suggested client wait before retrying, in seconds
+    private final long retryAfterSeconds;
+
+    public GeminiUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
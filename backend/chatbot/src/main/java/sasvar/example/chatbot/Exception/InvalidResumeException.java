@@ -0,0 +1,7 @@
+package sasvar.example.chatbot.Exception;
+
+public class InvalidResumeException extends RuntimeException {
+    public InvalidResumeException(String message) {
+        super(message);
+    }
+}
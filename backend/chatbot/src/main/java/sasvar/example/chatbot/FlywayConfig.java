@@ -0,0 +1,29 @@
+package sasvar.example.chatbot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// db.migrations.mode=migrate  → apply pending migrations at startup (local/dev)
+// db.migrations.mode=validate → only check that the DB matches the scripts; migrations
+//                               are applied by the deploy step, so app start stays fast
+// db.migrations.mode=none     → do not touch the DB (CDS training run during the image build)
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${db.migrations.mode:migrate}") String mode) {
+        return flyway -> {
+            if ("none".equalsIgnoreCase(mode)) {
+                return;
+            }
+            if ("validate".equalsIgnoreCase(mode)) {
+                flyway.validate();
+            } else {
+                flyway.migrate();
+            }
+        };
+    }
+}
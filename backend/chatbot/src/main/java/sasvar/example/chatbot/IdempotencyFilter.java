@@ -0,0 +1,325 @@
+package sasvar.example.chatbot;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import sasvar.example.chatbot.Service.IdempotencyService;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+// Idempotency-Key handling for the POSTs that cost a Gemini call or a Django embed
+// (idempotency.endpoints). A retry with the same key and body gets the first response back
+// (marked Idempotent-Replayed: true); a duplicate arriving while the first is still running
+// waits for it. Runs after Spring Security, so keys are scoped per authenticated caller.
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Value("${idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${idempotency.endpoints:POST /api/upload,POST /auth/register,POST /api/projects}")
+    private List<String> endpoints;
+
+    @Value("${idempotency.wait-timeout-ms:60000}")
+    private long waitTimeoutMs;
+
+    // must cover a 10 MB PDF sent base64 in a JSON body (~13.4 MB)
+    @Value("${idempotency.max-body-bytes:16777216}")
+    private long maxBodyBytes;
+
+    // JSON bodies above this are spooled to a temp file instead of held in memory
+    @Value("${idempotency.memory-body-bytes:262144}")
+    private int memoryBodyBytes;
+
+    @Value("${idempotency.max-response-bytes:262144}")
+    private int maxResponseBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || request.getHeader(HEADER) == null) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !endpoints.contains(request.getMethod() + " " + path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String key = request.getHeader(HEADER).strip();
+        if (key.isEmpty() || key.length() > 255) {
+            reject(response, HttpServletResponse.SC_BAD_REQUEST, "Idempotency-Key must be 1-255 characters");
+            return;
+        }
+
+        // JSON bodies are hashed while being buffered (spilling to a temp file when large) so the
+        // controller can still read them; multipart bodies are hashed part by part from the
+        // container's parsed (spooled) parts
+        HttpServletRequest req = request;
+        SpooledBody spooled = null;
+        MessageDigest body = sha256();
+        String contentType = request.getContentType() == null ? "" : request.getContentType();
+        if (contentType.startsWith("multipart/")) {
+            List<Part> parts = new ArrayList<>(request.getParts());
+            parts.sort(Comparator.comparing(Part::getName));
+            for (Part part : parts) {
+                body.update((part.getName() + "\u0000" + part.getSubmittedFileName() + "\u0000").getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = part.getInputStream()) {
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = in.read(buf)) != -1) body.update(buf, 0, n);
+                }
+            }
+        } else {
+            spooled = SpooledBody.read(request.getInputStream(), body, memoryBodyBytes, maxBodyBytes);
+            if (spooled == null) {
+                reject(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                        "Request body too large for an Idempotency-Key request");
+                return;
+            }
+            req = new CachedBodyRequest(request, spooled);
+        }
+        try {
+            handle(request, req, response, filterChain, key, body);
+        } finally {
+            if (spooled != null) spooled.delete();
+        }
+    }
+
+    private void handle(HttpServletRequest request,
+                        HttpServletRequest req,
+                        HttpServletResponse response,
+                        FilterChain filterChain,
+                        String key,
+                        MessageDigest body) throws ServletException, IOException {
+        String fingerprint = hex(body.digest());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String caller = auth == null || !auth.isAuthenticated() ? "anonymous" : auth.getName();
+        String keyHash = hex(sha256().digest((request.getMethod() + " " + request.getRequestURI() + "\n"
+                + caller + "\n" + key).getBytes(StandardCharsets.UTF_8)));
+
+        IdempotencyService.Outcome outcome = idempotencyService.claim(keyHash, fingerprint);
+        boolean waited = false;
+        if (outcome.claim() == IdempotencyService.Claim.IN_PROGRESS) {
+            waited = true;
+            try {
+                outcome = idempotencyService.await(keyHash, fingerprint, waitTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            }
+        }
+
+        switch (outcome.claim()) {
+            case MISMATCH -> {
+                idempotencyService.record("mismatch");
+                reject(response, 422, "Idempotency-Key was already used for a different request");
+            }
+            case IN_PROGRESS -> {
+                idempotencyService.record("timeout");
+                response.setHeader("Retry-After", "1");
+                reject(response, HttpServletResponse.SC_CONFLICT,
+                        "A request with this Idempotency-Key is still being processed");
+            }
+            case REPLAY -> {
+                idempotencyService.record(waited ? "waited" : "replayed");
+                IdempotencyService.StoredResponse stored = outcome.response();
+                response.setStatus(stored.status());
+                if (stored.contentType() != null) response.setContentType(stored.contentType());
+                response.setHeader(REPLAYED_HEADER, "true");
+                if (stored.body() != null) response.getOutputStream().write(stored.body());
+            }
+            case OWNER -> {
+                idempotencyService.record("executed");
+                execute(req, response, filterChain, keyHash, outcome.token());
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain filterChain,
+                         String keyHash,
+                         String token) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, captured);
+            byte[] bytes = captured.getContentAsByteArray();
+            // server errors (e.g. Gemini unavailable) are worth retrying, so they are not kept
+            if (captured.getStatus() < 500 && bytes.length <= maxResponseBytes) {
+                idempotencyService.complete(keyHash, token, captured.getStatus(), captured.getContentType(), bytes);
+                stored = true;
+            }
+        } finally {
+            if (!stored) idempotencyService.release(keyHash, token);
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    // A request body copied while hashing: in memory up to memoryBytes, then in a temp file
+    private static final class SpooledBody {
+        private final byte[] bytes;
+        private final File file;
+        private final long length;
+
+        private SpooledBody(byte[] bytes, File file, long length) {
+            this.bytes = bytes;
+            this.file = file;
+            this.length = length;
+        }
+
+        // null when the body is longer than maxBytes
+        static SpooledBody read(InputStream in, MessageDigest digest, int memoryBytes, long maxBytes) throws IOException {
+            ByteArrayOutputStream memory = new ByteArrayOutputStream(Math.min(memoryBytes, 8192));
+            File file = null;
+            OutputStream out = memory;
+            long total = 0;
+            byte[] buf = new byte[8192];
+            int n;
+            try {
+                while ((n = in.read(buf)) != -1) {
+                    total += n;
+                    if (total > maxBytes) {
+                        out.close();
+                        if (file != null) Files.deleteIfExists(file.toPath());
+                        return null;
+                    }
+                    digest.update(buf, 0, n);
+                    if (file == null && total > memoryBytes) {
+                        file = Files.createTempFile("idempotency-", ".body").toFile();
+                        out = new BufferedOutputStream(new FileOutputStream(file));
+                        memory.writeTo(out);
+                    }
+                    out.write(buf, 0, n);
+                }
+                out.close();
+            } catch (IOException e) {
+                if (file != null) Files.deleteIfExists(file.toPath());
+                throw e;
+            }
+            return file == null
+                    ? new SpooledBody(memory.toByteArray(), null, total)
+                    : new SpooledBody(null, file, total);
+        }
+
+        InputStream open() throws IOException {
+            return file == null ? new ByteArrayInputStream(bytes) : new BufferedInputStream(new FileInputStream(file));
+        }
+
+        void delete() {
+            if (file != null && !file.delete()) file.deleteOnExit();
+        }
+    }
+
+    // replays a buffered body to the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final SpooledBody body;
+
+        CachedBodyRequest(HttpServletRequest request, SpooledBody body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream in = body.open();
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() throws IOException {
+                    int b = in.read();
+                    if (b == -1) finished = true;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = in.read(b, off, len);
+                    if (n == -1) finished = true;
+                    return n;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    in.close();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding() == null ? "UTF-8" : getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), java.nio.charset.Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length > Integer.MAX_VALUE ? -1 : (int) body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
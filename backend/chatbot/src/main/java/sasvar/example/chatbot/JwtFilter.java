@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import sasvar.example.chatbot.Repository.UserRepository;
 import sasvar.example.chatbot.Utils.JwtUtils;
+import sasvar.example.chatbot.Utils.ServerTiming;
 
 import java.io.IOException;
 import java.util.List;
@@ -35,8 +36,13 @@ public class JwtFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtUtils.validateToken(token)) {
-                String email = jwtUtils.extractEmail(token);
+            String email;
+            try (var t = ServerTiming.phase("jwt")) {
+                email = jwtUtils.validateToken(token) ? jwtUtils.extractEmail(token) : null;
+            }
+
+            if (email != null) {
+                request.setAttribute(ServerTimingFilter.USER_ATTRIBUTE, email);
 
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,98 @@
+package sasvar.example.chatbot;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.flyway.autoconfigure.FlywayDataSource;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import sasvar.example.chatbot.Utils.ReplicaLagAwareDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split, active only when app.datasource.replica.url is set.
+ * Transactions marked @Transactional(readOnly = true) get replica connections,
+ * everything else (and Flyway) uses the primary. Connections are fetched lazily,
+ * after the transaction's read-only flag is known, and released when the transaction
+ * ends; this relies on spring.jpa.open-in-view=false (with the session held open per
+ * request, the first connection would serve every later transaction of that request).
+ *
+ * Local test with two instances:
+ *   spring.datasource.url=jdbc:postgresql://localhost:5432/buddy
+ *   app.datasource.replica.url=jdbc:postgresql://localhost:5433/buddy
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    // resolved lazily: the router is defined below in this same class
+    @Autowired
+    private ObjectProvider<ReplicaLagAwareDataSource> replicaRouter;
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password,
+                                              @Value("${app.datasource.replica.maximum-pool-size:10}") int maxPoolSize) {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.getDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        ds.setPoolName("replica");
+        ds.setReadOnly(true);
+        ds.setMaximumPoolSize(maxPoolSize);
+        return ds;
+    }
+
+    @Bean
+    public ReplicaLagAwareDataSource replicaRouter(HikariDataSource replicaDataSource,
+                                                   HikariDataSource primaryDataSource,
+                                                   @Value("${app.datasource.replica.max-lag-seconds:2}") double maxLagSeconds,
+                                                   MeterRegistry meterRegistry) {
+        ReplicaLagAwareDataSource router = new ReplicaLagAwareDataSource(replicaDataSource, primaryDataSource, maxLagSeconds);
+        Gauge.builder("db.replica.lag.seconds", router, ReplicaLagAwareDataSource::getLastLagSeconds)
+                .description("Last measured replay lag of the read replica")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.usable", router, r -> r.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        return router;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagAwareDataSource replicaRouter) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRouter);
+        return proxy;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:5000}")
+    public void checkReplicaLag() {
+        replicaRouter.ifAvailable(ReplicaLagAwareDataSource::refreshLag);
+    }
+}
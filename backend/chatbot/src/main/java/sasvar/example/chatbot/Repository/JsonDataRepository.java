@@ -1,12 +1,50 @@
 package sasvar.example.chatbot.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import sasvar.example.chatbot.Database.JsonData;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface JsonDataRepository extends JpaRepository<JsonData, Long> {
     Optional<JsonData> findByEmail(String email);
     List<JsonData> findAllByEmailIn(List<String> emails); // New method
+
+    // Same lookup as findAllByEmailIn, emails only — avoids loading profile JSON and PDFs
+    @Query("select j.email from JsonData j where j.email in :emails")
+    List<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
+    // Apply a background parse in one statement, only while the row still holds the same upload
+    // (created_at) and its heuristic first pass; blank profile columns are filled, resume_pdf
+    // and its hash are never touched. Returns 0 when the profile changed in the meantime.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE resume
+               SET profile_json = CAST(:json AS jsonb),
+                   name = COALESCE(NULLIF(btrim(name), ''), :name),
+                   year = COALESCE(NULLIF(btrim(year), ''), :year),
+                   department = COALESCE(NULLIF(btrim(department), ''), :department),
+                   institution = COALESCE(NULLIF(btrim(institution), ''), :institution),
+                   availability = COALESCE(NULLIF(btrim(availability), ''), :availability)
+             WHERE id = :id
+               AND created_at = :createdAt
+               AND profile_json ->> :markerField = :markerValue
+            """, nativeQuery = true)
+    int mergeParsedProfile(@Param("id") Long id,
+                           @Param("createdAt") Instant createdAt,
+                           @Param("markerField") String markerField,
+                           @Param("markerValue") String markerValue,
+                           @Param("json") String json,
+                           @Param("name") String name,
+                           @Param("year") String year,
+                           @Param("department") String department,
+                           @Param("institution") String institution,
+                           @Param("availability") String availability);
 }
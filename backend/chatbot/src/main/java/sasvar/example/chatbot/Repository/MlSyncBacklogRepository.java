@@ -0,0 +1,24 @@
+package sasvar.example.chatbot.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import sasvar.example.chatbot.Database.MlSyncBacklog;
+
+import java.util.List;
+
+public interface MlSyncBacklogRepository extends JpaRepository<MlSyncBacklog, Long> {
+    List<MlSyncBacklog> findTop50ByKindOrderByIdAsc(String kind);
+
+    // Queue a send for replay in one statement; an existing row for (kind, ref_id) is kept
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO ml_sync_backlog (kind, ref_id, created_at)
+            VALUES (:kind, :refId, now())
+            ON CONFLICT (kind, ref_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("kind") String kind, @Param("refId") Long refId);
+}
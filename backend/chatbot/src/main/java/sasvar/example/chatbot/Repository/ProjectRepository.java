@@ -1,10 +1,71 @@
 package sasvar.example.chatbot.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import sasvar.example.chatbot.Database.ProjectData;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProjectRepository extends JpaRepository<ProjectData, Long> {
     List<ProjectData> findAllByEmail(String email);
+
+    // Projects created since the given instant, newest first (ix_projects_created_at)
+    List<ProjectData> findAllByCreatedAtGreaterThanEqualOrderByCreatedAtDesc(Instant since);
+
+    // Cursor-backed scan used by the streaming explore export.
+    // Must be consumed inside a transaction so the PostgreSQL driver honours the fetch size.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from ProjectData p order by p.id")
+    Stream<ProjectData> streamAllOrderById();
+
+    // Dashboard for one user in a single round trip: owned and joined projects with team size
+    // and pending JOIN_REQUEST count per project, plus the user's incoming pending requests.
+    // The outer LEFT JOIN always yields one row, so the incoming count survives an empty list
+    // (project columns are then null). A project the user both owns and belongs to comes back
+    // twice; callers merge rows by id.
+    // Columns: id, title, project_type, visibility, required_skills, preferred_technologies,
+    // github_repo, description, domain, created_at, status, email, owner, team_size,
+    // pending_requests, incoming_pending
+    @Query(value = """
+            WITH mine AS (
+                SELECT id AS project_id, TRUE AS owner FROM projects WHERE email = :email
+                UNION ALL
+                SELECT project_id, FALSE FROM project_team WHERE member_email = :email
+            ),
+            team AS (
+                SELECT t.project_id, count(*) AS team_size
+                  FROM project_team t
+                 WHERE t.project_id IN (SELECT project_id FROM mine)
+                 GROUP BY t.project_id
+            ),
+            pending AS (
+                SELECT r.project_id, count(*) AS pending_requests
+                  FROM project_team_request r
+                 WHERE r.project_id IN (SELECT project_id FROM mine)
+                   AND r.status = 'PENDING' AND r.type = 'JOIN_REQUEST'
+                 GROUP BY r.project_id
+            )
+            SELECT p.id, p.title, p.project_type, p.visibility, p.required_skills,
+                   p.preferred_technologies, p.github_repo, p.description, p.domain,
+                   p.created_at, p.status, p.email, m.owner,
+                   COALESCE(t.team_size, 0), COALESCE(q.pending_requests, 0), i.incoming_pending
+              FROM (SELECT count(*) AS incoming_pending
+                      FROM project_team_request
+                     WHERE target_email = :email AND status = 'PENDING') i
+              LEFT JOIN (mine m
+                         JOIN projects p ON p.id = m.project_id
+                         LEFT JOIN team t ON t.project_id = p.id
+                         LEFT JOIN pending q ON q.project_id = p.id) ON TRUE
+             ORDER BY p.created_at DESC NULLS LAST, p.id DESC
+            """, nativeQuery = true)
+    List<Object[]> findDashboardRows(@Param("email") String email);
 }
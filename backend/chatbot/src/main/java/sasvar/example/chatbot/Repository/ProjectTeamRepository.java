@@ -1,8 +1,13 @@
 package sasvar.example.chatbot.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import sasvar.example.chatbot.Database.ProjectTeam;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +16,26 @@ public interface ProjectTeamRepository extends JpaRepository<ProjectTeam, Long>
     Optional<ProjectTeam> findByProjectIdAndMemberEmail(Long projectId, String memberEmail);
     boolean existsByProjectIdAndMemberEmail(Long projectId, String memberEmail);
     List<ProjectTeam> findAllByMemberEmail(String memberEmail);
+
+    @Query("select t.memberEmail from ProjectTeam t where t.projectId = :projectId and t.memberEmail in :emails")
+    List<String> findMemberEmailsIn(@Param("projectId") Long projectId, @Param("emails") Collection<String> emails);
+
+    // One statement for addTeammate: insert only if the caller owns the project and the
+    // member has a profile; duplicates are absorbed by uq_project_team_project_member.
+    // Returns null when nothing was inserted (caller then works out why).
+    @Transactional
+    @Query(value = """
+            INSERT INTO project_team (project_id, member_email, added_at)
+            SELECT p.id, :memberEmail, :addedAt
+              FROM projects p
+             WHERE p.id = :projectId
+               AND p.email = :ownerEmail
+               AND EXISTS (SELECT 1 FROM resume r WHERE r.email = :memberEmail)
+            ON CONFLICT (project_id, member_email) DO NOTHING
+            RETURNING *
+            """, nativeQuery = true)
+    ProjectTeam insertIfOwner(@Param("projectId") Long projectId,
+                              @Param("ownerEmail") String ownerEmail,
+                              @Param("memberEmail") String memberEmail,
+                              @Param("addedAt") Instant addedAt);
 }
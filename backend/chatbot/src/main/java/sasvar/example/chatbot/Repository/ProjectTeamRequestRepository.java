@@ -1,8 +1,13 @@
 package sasvar.example.chatbot.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import sasvar.example.chatbot.Database.ProjectTeamRequest;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +15,89 @@ public interface ProjectTeamRequestRepository extends JpaRepository<ProjectTeamR
     List<ProjectTeamRequest> findByTargetEmailAndStatus(String targetEmail, String status);
     List<ProjectTeamRequest> findAllByTargetEmail(String targetEmail);
     Optional<ProjectTeamRequest> findByProjectIdAndTargetEmailAndStatus(Long projectId, String targetEmail, String status);
+
+    // Inbox limited to a time window, newest first (ix_project_team_request_target_created)
+    List<ProjectTeamRequest> findAllByTargetEmailAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(String targetEmail, Instant since);
+
+    // Requests created before the cutoff, e.g. older than 30 days (ix_project_team_request_created_at)
+    List<ProjectTeamRequest> findAllByCreatedAtBefore(Instant cutoff);
+
+    // Accept in one round trip: delete the pending join request addressed to the actor and insert
+    // the membership from the deleted row. Row = [project_id, target_email, team id or null];
+    // no row when the request is missing, not a pending JOIN_REQUEST or not addressed to the
+    // actor, a null team id when the user already was a teammate (the request is still consumed).
+    // target_email is compared exactly, as the insert paths store it, so the lookup stays on
+    // the primary key and the (target_email, ...) indexes.
+    @Transactional
+    @Query(value = """
+            WITH req AS (
+                DELETE FROM project_team_request
+                 WHERE id = :requestId
+                   AND status = 'PENDING'
+                   AND type = 'JOIN_REQUEST'
+                   AND target_email = :actorEmail
+                RETURNING project_id, target_email
+            ), ins AS (
+                INSERT INTO project_team (project_id, member_email, added_at)
+                SELECT project_id, target_email, :addedAt FROM req
+                ON CONFLICT (project_id, member_email) DO NOTHING
+                RETURNING id
+            )
+            SELECT req.project_id, req.target_email, (SELECT id FROM ins) FROM req
+            """, nativeQuery = true)
+    List<Object[]> acceptPending(@Param("requestId") Long requestId,
+                                 @Param("actorEmail") String actorEmail,
+                                 @Param("addedAt") Instant addedAt);
+
+    // Create a pending JOIN_REQUEST in one statement: owner check, target profile check and
+    // "not already a teammate" are part of the INSERT ... SELECT; an existing pending request
+    // is absorbed by ux_project_team_request_pending_join. Returns null when nothing was inserted.
+    @Transactional
+    @Query(value = """
+            INSERT INTO project_team_request
+                   (project_id, project_title, requester_email, target_email, status, type, created_at, updated_at)
+            SELECT p.id, p.title, :requesterEmail, :targetEmail, 'PENDING', 'JOIN_REQUEST', :now, :now
+              FROM projects p
+             WHERE p.id = :projectId
+               AND p.email = :requesterEmail
+               AND EXISTS (SELECT 1 FROM resume r WHERE r.email = :targetEmail)
+               AND NOT EXISTS (SELECT 1 FROM project_team t
+                                WHERE t.project_id = p.id AND t.member_email = :targetEmail)
+            ON CONFLICT (project_id, target_email) WHERE status = 'PENDING' AND type = 'JOIN_REQUEST'
+            DO NOTHING
+            RETURNING *
+            """, nativeQuery = true)
+    ProjectTeamRequest insertPendingJoinRequest(@Param("projectId") Long projectId,
+                                                @Param("requesterEmail") String requesterEmail,
+                                                @Param("targetEmail") String targetEmail,
+                                                @Param("now") Instant now);
+
+    @Query("select r.targetEmail from ProjectTeamRequest r where r.projectId = :projectId "
+            + "and r.status = 'PENDING' and r.type = 'JOIN_REQUEST' and r.targetEmail in :emails")
+    List<String> findPendingJoinTargetsIn(@Param("projectId") Long projectId,
+                                          @Param("emails") Collection<String> emails);
+
+    // Bulk form of insertPendingJoinRequest: one INSERT ... SELECT over the whole email list,
+    // with the same owner / profile / not-a-teammate checks and pending-duplicate absorption.
+    // Row = [id, target_email] for every request actually created.
+    @Transactional
+    @Query(value = """
+            INSERT INTO project_team_request
+                   (project_id, project_title, requester_email, target_email, status, type, created_at, updated_at)
+            SELECT p.id, p.title, :requesterEmail, e.email, 'PENDING', 'JOIN_REQUEST', :now, :now
+              FROM projects p
+             CROSS JOIN unnest(CAST(:targetEmails AS text[])) AS e(email)
+             WHERE p.id = :projectId
+               AND p.email = :requesterEmail
+               AND EXISTS (SELECT 1 FROM resume r WHERE r.email = e.email)
+               AND NOT EXISTS (SELECT 1 FROM project_team t
+                                WHERE t.project_id = p.id AND t.member_email = e.email)
+            ON CONFLICT (project_id, target_email) WHERE status = 'PENDING' AND type = 'JOIN_REQUEST'
+            DO NOTHING
+            RETURNING id, target_email
+            """, nativeQuery = true)
+    List<Object[]> insertPendingJoinRequests(@Param("projectId") Long projectId,
+                                             @Param("requesterEmail") String requesterEmail,
+                                             @Param("targetEmails") String[] targetEmails,
+                                             @Param("now") Instant now);
 }
@@ -0,0 +1,47 @@
+package sasvar.example.chatbot.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import sasvar.example.chatbot.Database.Rating;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RatingRepository extends JpaRepository<Rating, Long> {
+
+    // Submit in one statement: consume the pending RATING_REQUEST addressed to the rater,
+    // store the rating and bump the ratee's aggregates in place.
+    // Row = [ratee_email, rating_count, rating_sum, rating_sum_sq]; no row when the request is
+    // missing / not the rater's, or the rating already existed (the request is still consumed).
+    @Transactional
+    @Query(value = """
+            WITH req AS (
+                DELETE FROM project_team_request
+                 WHERE id = :requestId
+                   AND type = 'RATING_REQUEST'
+                   AND status = 'PENDING'
+                   AND lower(target_email) = lower(:raterEmail)
+                RETURNING project_id, target_email, ratee_email
+            ), ins AS (
+                INSERT INTO rating (project_id, rater_email, ratee_email, score, comment, created_at)
+                SELECT project_id, target_email, ratee_email, :score, CAST(:comment AS TEXT), :now FROM req
+                ON CONFLICT (project_id, rater_email, ratee_email) DO NOTHING
+                RETURNING ratee_email, score
+            )
+            INSERT INTO user_reputation (email, rating_count, rating_sum, rating_sum_sq, updated_at)
+            SELECT ratee_email, 1, score, score * score, :now FROM ins
+            ON CONFLICT (email) DO UPDATE
+               SET rating_count = user_reputation.rating_count + 1,
+                   rating_sum = user_reputation.rating_sum + EXCLUDED.rating_sum,
+                   rating_sum_sq = user_reputation.rating_sum_sq + EXCLUDED.rating_sum_sq,
+                   updated_at = EXCLUDED.updated_at
+            RETURNING email, rating_count, rating_sum, rating_sum_sq
+            """, nativeQuery = true)
+    List<Object[]> submitForRequest(@Param("requestId") Long requestId,
+                                    @Param("raterEmail") String raterEmail,
+                                    @Param("score") int score,
+                                    @Param("comment") String comment,
+                                    @Param("now") Instant now);
+}
@@ -0,0 +1,38 @@
+package sasvar.example.chatbot.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import sasvar.example.chatbot.Database.UserReputation;
+
+public interface UserReputationRepository extends JpaRepository<UserReputation, String> {
+
+    // Rebuild the aggregates from the rating table; only rows that drifted are written.
+    // Returns the number of corrected rows.
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_reputation (email, rating_count, rating_sum, rating_sum_sq, updated_at)
+            SELECT ratee_email, count(*), sum(score), sum(score * score), now()
+              FROM rating
+             GROUP BY ratee_email
+            ON CONFLICT (email) DO UPDATE
+               SET rating_count = EXCLUDED.rating_count,
+                   rating_sum = EXCLUDED.rating_sum,
+                   rating_sum_sq = EXCLUDED.rating_sum_sq,
+                   updated_at = EXCLUDED.updated_at
+             WHERE (user_reputation.rating_count, user_reputation.rating_sum, user_reputation.rating_sum_sq)
+                   IS DISTINCT FROM (EXCLUDED.rating_count, EXCLUDED.rating_sum, EXCLUDED.rating_sum_sq)
+            """, nativeQuery = true)
+    int reconcileFromRatings();
+
+    // Aggregates left behind for users who no longer have any rating
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM user_reputation u
+             WHERE NOT EXISTS (SELECT 1 FROM rating r WHERE r.ratee_email = u.email)
+            """, nativeQuery = true)
+    int deleteWithoutRatings();
+}
@@ -39,6 +39,7 @@ public class SecurityConfig {
                 .formLogin(form -> form.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         .requestMatchers("/api/parse").authenticated()
                         .anyRequest().authenticated()
                 )
@@ -62,11 +63,15 @@ public class SecurityConfig {
 
         config.setAllowedHeaders(List.of(
                 "Authorization",
-                "Content-Type"
+                "Content-Type",
+                IdempotencyFilter.HEADER,
+                "X-Server-Timing"
         ));
 
         config.setExposedHeaders(List.of(
-                "Authorization"
+                "Authorization",
+                IdempotencyFilter.REPLAYED_HEADER,
+                ServerTimingAdvice.HEADER
         ));
 
         config.setAllowCredentials(true);
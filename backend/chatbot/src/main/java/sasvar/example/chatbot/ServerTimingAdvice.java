@@ -0,0 +1,40 @@
+package sasvar.example.chatbot;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import sasvar.example.chatbot.Utils.ServerTiming;
+
+// Adds the Server-Timing header while headers can still be written (right before the body).
+// JSON serialization of the response happens after this point and is not part of the breakdown.
+@RestControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null || !(request instanceof ServletServerHttpRequest servletRequest)) return body;
+
+        Object level = servletRequest.getServletRequest().getAttribute(ServerTimingFilter.HEADER_LEVEL_ATTRIBUTE);
+        if (level == null || "off".equalsIgnoreCase(level.toString())) return body;
+        response.getHeaders().set(HEADER, timing.header("debug".equalsIgnoreCase(level.toString())));
+        return body;
+    }
+}
@@ -0,0 +1,24 @@
+package sasvar.example.chatbot;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sasvar.example.chatbot.Utils.TimedDataSource;
+
+import javax.sql.DataSource;
+
+// Wraps the application DataSource ("dataSource": the Hikari pool, or the read/write
+// router from ReadReplicaConfig) in TimedDataSource, so the "db" Server-Timing phase
+// covers every query without timing code at the call sites.
+@Component
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingDataSourceWrapper implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource ds && !(bean instanceof TimedDataSource)) {
+            return new TimedDataSource(ds);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,67 @@
+package sasvar.example.chatbot;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import sasvar.example.chatbot.Utils.ServerTiming;
+import sasvar.example.chatbot.Utils.SlowRequestLog;
+
+import java.io.IOException;
+
+// Opens the per-request ServerTiming before anything else runs (including Spring Security and
+// JwtFilter), and afterwards hands slow requests to SlowRequestLog. The Server-Timing header
+// itself is added by ServerTimingAdvice just before the body is written.
+// server-timing.level: off (no header) | basic (duration per phase) | debug (adds call counts);
+// with server-timing.debug-header-enabled a request can ask for debug with "X-Server-Timing: debug".
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_LEVEL_ATTRIBUTE = ServerTimingFilter.class.getName() + ".level";
+    public static final String USER_ATTRIBUTE = ServerTimingFilter.class.getName() + ".user";
+
+    @Autowired
+    private SlowRequestLog slowRequestLog;
+
+    @Value("${server-timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${server-timing.level:basic}")
+    private String level;
+
+    @Value("${server-timing.debug-header-enabled:false}")
+    private boolean debugHeaderEnabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String headerLevel = level;
+        if (debugHeaderEnabled && "debug".equalsIgnoreCase(request.getHeader("X-Server-Timing"))) {
+            headerLevel = "debug";
+        }
+        request.setAttribute(HEADER_LEVEL_ATTRIBUTE, headerLevel);
+
+        ServerTiming timing = ServerTiming.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ServerTiming.end();
+            Object user = request.getAttribute(USER_ATTRIBUTE);
+            slowRequestLog.record(request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    user == null ? null : user.toString(), timing);
+        }
+    }
+}
@@ -1,25 +1,32 @@
 package sasvar.example.chatbot.Service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 import sasvar.example.chatbot.Database.JsonData;
+import sasvar.example.chatbot.Exception.GeminiUnavailableException;
 import sasvar.example.chatbot.Exception.ProfileNotFoundException;
 import sasvar.example.chatbot.Repository.JsonDataRepository;
+import sasvar.example.chatbot.Utils.ServerTiming;
+import sasvar.example.chatbot.Utils.SkillDictionary;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import sasvar.example.chatbot.Database.ProjectData;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.Map;
 import java.util.List;
 import java.util.Arrays;
 import java.util.stream.Collectors;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 
 @Service
 public class ChatBotService {
@@ -27,36 +34,27 @@ public class ChatBotService {
     @Autowired
     private JsonDataRepository jsonDataRepository;
 
-    @Value("${gemini.api.key}")
-    private String apiKey;
-
-    // ✅ Stable & recommended
-    private static final String GEMMA_URL =
-            "https://generativelanguage.googleapis.com/v1beta/models/" +
-                    "gemini-2.5-flash:generateContent?key=%s";
-
+    @Autowired
+    private ResumeTextPreprocessor resumeTextPreprocessor;
 
-    public String convertJSON(String resumeText) {
+    @Autowired
+    private GeminiClient geminiClient;
 
-        RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private DjangoMlClient djangoMlClient;
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    @Autowired
+    private RecommendationService recommendationService;
 
-        // ✅ Improved prompt (allows inference)
-        String prompt = """
-You are an AI resume parser.
+    @Autowired
+    private RatingService ratingService;
 
-Extract structured information from the resume text below.
+    @Autowired
+    private SkillDictionary skillDictionary;
 
-Rules:
-- Infer name, email, phone, skills, and education if clearly present.
-- Do NOT leave fields empty when information is visible.
-- Only leave fields empty if information is truly missing.
-- Return ONLY valid minified JSON.
-- Do NOT include explanations, markdown, or extra text.
 
-JSON Schema:
+    // Target structure of a parsed resume, shared by the single and the batched prompt
+    private static final String RESUME_SCHEMA = """
 {
   "profile": {
     "name": "",
@@ -118,18 +116,119 @@ JSON Schema:
     "peer_endorsements": 0
   }
 }
+""";
+
+    public String convertJSON(String resumeText) {
+
+        // Normalize, de-duplicate and budget the text first — prompt tokens drive latency and cost
+        try (var t = ServerTiming.phase("prep")) {
+            resumeText = resumeTextPreprocessor.prepare(resumeText).text();
+        }
+
+        // ✅ Improved prompt (allows inference)
+        String prompt = """
+You are an AI resume parser.
+
+Extract structured information from the resume text below.
 
+Rules:
+- Infer name, email, phone, skills, and education if clearly present.
+- Do NOT leave fields empty when information is visible.
+- Only leave fields empty if information is truly missing.
+- Return ONLY valid minified JSON.
+- Do NOT include explanations, markdown, or extra text.
+
+JSON Schema:
+%s
 Resume Text:
 \"\"\"%s\"\"\"
-""".formatted(resumeText);
+""".formatted(RESUME_SCHEMA, resumeText);
+
+        try {
+            // limiter + 429-aware retries live in GeminiClient
+            String reply = ServerTiming.time("gemini", () -> geminiClient.generateContent(geminiBody(prompt)));
+
+            String result;
+            try (var t = ServerTiming.phase("json")) {
+                result = extractGeminiReply(reply);
+                // ✅ Validate JSON before returning
+                new ObjectMapper().readTree(result);
+            }
+
+            return result;
+
+        } catch (GeminiUnavailableException e) {
+            // overloaded/throttled: surface it instead of storing an empty profile
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            // IMPORTANT: return a valid JSON fallback instead of a plain error string
+            return "{}";
+        }
+    }
+
+    // Parse several resumes with one Gemini request (bulk import). Returns one JSON object
+    // string per input, in input order. Throws when the reply is not an array of exactly that
+    // many objects (e.g. truncated output); callers then fall back to convertJSON per resume.
+    public List<String> convertJSONBatch(List<String> resumeTexts) {
+        if (resumeTexts.size() == 1) {
+            return List.of(convertJSON(resumeTexts.get(0)));
+        }
+
+        StringBuilder resumes = new StringBuilder();
+        for (int i = 0; i < resumeTexts.size(); i++) {
+            resumes.append("Resume ").append(i + 1).append(":\n\"\"\"")
+                    .append(resumeTextPreprocessor.prepare(resumeTexts.get(i)).text())
+                    .append("\"\"\"\n\n");
+        }
+        String prompt = """
+You are an AI resume parser.
+
+Extract structured information from each of the %d resumes below.
+
+Rules:
+- Infer name, email, phone, skills, and education if clearly present.
+- Do NOT leave fields empty when information is visible.
+- Only leave fields empty if information is truly missing.
+- Return ONLY a valid minified JSON array with exactly %d objects, one per resume, in the same order.
+- Every object follows the schema below.
+- Do NOT include explanations, markdown, or extra text.
+
+JSON Schema (per resume):
+%s
+%s""".formatted(resumeTexts.size(), resumeTexts.size(), RESUME_SCHEMA, resumes);
+
+        String reply = extractGeminiReply(
+                ServerTiming.time("gemini", () -> geminiClient.generateContent(geminiBody(prompt))));
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode array = mapper.readTree(reply);
+            if (!array.isArray() || array.size() != resumeTexts.size()) {
+                throw new IllegalStateException("expected " + resumeTexts.size() + " results, got "
+                        + (array.isArray() ? array.size() : array.getNodeType()));
+            }
+            List<String> results = new ArrayList<>(array.size());
+            for (JsonNode item : array) {
+                if (!item.isObject()) throw new IllegalStateException("result is not an object");
+                results.add(mapper.writeValueAsString(item));
+            }
+            return results;
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("batched reply is not valid JSON", e);
+        }
+    }
 
+    // Gemini generateContent request body for a single text prompt
+    private String geminiBody(String prompt) {
         // ✅ Proper escaping (VERY IMPORTANT)
         String escapedPrompt = prompt
                 .replace("\\", "\\\\")
                 .replace("\"", "\\\"")
                 .replace("\n", "\\n");
 
-        String body = """
+        return """
         {
           "contents": [
             {
@@ -140,29 +239,6 @@ Resume Text:
           ]
         }
         """.formatted(escapedPrompt);
-
-        HttpEntity<String> request = new HttpEntity<>(body, headers);
-
-        try {
-            ResponseEntity<String> response =
-                    restTemplate.postForEntity(
-                            String.format(GEMMA_URL, apiKey),
-                            request,
-                            String.class
-                    );
-
-            String result = extractGeminiReply(response.getBody());
-
-            // ✅ Validate JSON before returning
-            new ObjectMapper().readTree(result);
-
-            return result;
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            // IMPORTANT: return a valid JSON fallback instead of a plain error string
-            return "{}";
-        }
     }
 
     private String extractGeminiReply(String responseBody) {
@@ -203,6 +279,22 @@ Resume Text:
                                     String providedInstitution,
                                     String providedAvailability,
                                     byte[] resumePdf) {
+        JsonData saved = storeJsonForEmail(json, email, providedName, providedYear, providedDepartment,
+                providedInstitution, providedAvailability, resumePdf);
+        refreshRecommendations(saved);
+        return saved;
+    }
+
+    // saveJsonForEmail without the recommendation refresh, for callers that save inside a longer
+    // transaction (bulk import) and call refreshRecommendations once it has committed
+    public JsonData storeJsonForEmail(String json,
+                                      String email,
+                                      String providedName,
+                                      String providedYear,
+                                      String providedDepartment,
+                                      String providedInstitution,
+                                      String providedAvailability,
+                                      byte[] resumePdf) {
 
         // Use provided email (no SecurityContext required)
         if (email == null || email.isBlank()) {
@@ -213,9 +305,10 @@ Resume Text:
         String validJson = "{}";
         if (json != null) {
             try {
-                // attempt to parse; if succeeds, keep original string
-                new ObjectMapper().readTree(json);
-                validJson = json;
+                // attempt to parse; if succeeds, keep it (skills in canonical form)
+                try (var t = ServerTiming.phase("json")) {
+                    validJson = canonicalizeSkills(json);
+                }
             } catch (Exception e) {
                 e.printStackTrace();
                 // fallback to empty JSON to avoid DB jsonb insertion errors
@@ -230,7 +323,9 @@ Resume Text:
         // persist only validated JSON
         profile.setProfileJson(validJson);
         profile.setResumePdf(resumePdf);
-        profile.setCreatedAt(Instant.now().toString());
+        profile.setResumeSha256(ResumeStorageService.sha256Hex(resumePdf));
+        profile.setResumeSize(resumePdf == null ? null : (long) resumePdf.length);
+        profile.setCreatedAt(Instant.now());
 
         if (providedName != null && !providedName.isBlank()) {
             profile.setName(providedName);
@@ -249,9 +344,40 @@ Resume Text:
         }
 
         // For any missing fields, try to extract from validated parsed JSON
+        fillMissingFromJson(profile, validJson);
+
+        return jsonDataRepository.save(profile);
+    }
+
+    // Rewrite skills.* arrays to canonical names ("ReactJS" -> "react"), dropping duplicates.
+    // Skills outside the dictionary are kept as written. Throws if json is not valid JSON.
+    private String canonicalizeSkills(String json) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode root = mapper.readTree(json);
+        if (!(root.path("skills") instanceof ObjectNode skills)) return json;
+        List<String> fields = new ArrayList<>();
+        skills.fieldNames().forEachRemaining(fields::add);
+        for (String field : fields) {
+            JsonNode items = skills.get(field);
+            if (!items.isArray()) continue;
+            Map<String, String> seen = new LinkedHashMap<>();
+            for (JsonNode item : items) {
+                if (!item.isTextual() || item.asText().isBlank()) continue;
+                Integer id = skillDictionary.idOf(item.asText());
+                String value = id == null ? item.asText().trim() : skillDictionary.canonicalName(id);
+                seen.putIfAbsent(value.toLowerCase(Locale.ROOT), value);
+            }
+            ArrayNode array = skills.putArray(field);
+            seen.values().forEach(array::add);
+        }
+        return mapper.writeValueAsString(root);
+    }
+
+    // Fill blank top-level profile columns from the "profile" block of a parsed resume JSON
+    private void fillMissingFromJson(JsonData profile, String json) {
         try {
             ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(validJson);
+            JsonNode root = mapper.readTree(json);
             JsonNode profileNode = root.path("profile");
             if (!profileNode.isMissingNode()) {
                 if ((profile.getName() == null || profile.getName().isBlank())
@@ -279,8 +405,72 @@ Resume Text:
             // already validated; this block is best-effort — ignore on failure
             e.printStackTrace();
         }
+    }
+
+    // Merge the full Gemini parse into a profile that was saved with the heuristic first pass.
+    // Only applies while the stored JSON is still that first pass and the resume has not been
+    // replaced since (createdAt unchanged); returns null when the merge was skipped.
+    // The write re-checks both in its WHERE clause, so an upload committed after the load wins.
+    public JsonData mergeParsedJson(Long profileId, Instant savedAt, String parsedJson) {
+        JsonData profile = jsonDataRepository.findById(profileId).orElse(null);
+        if (profile == null || !isHeuristicOnly(profile)
+                || profile.getCreatedAt() == null
+                || !profile.getCreatedAt().truncatedTo(ChronoUnit.MILLIS).equals(savedAt.truncatedTo(ChronoUnit.MILLIS))) {
+            return null;
+        }
 
-        return jsonDataRepository.save(profile);
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode parsed = mapper.readTree(parsedJson);
+            if (!(parsed instanceof ObjectNode merged) || merged.isEmpty()) {
+                return null; // Gemini gave nothing usable; keep the first pass
+            }
+            JsonNode quick = mapper.readTree(profile.getProfileJson());
+
+            // Gemini wins; the first pass only fills what it left empty
+            ObjectNode mergedProfile = merged.path("profile") instanceof ObjectNode p ? p : merged.putObject("profile");
+            quick.path("profile").properties().forEach(e -> {
+                if (mergedProfile.path(e.getKey()).asText("").isBlank()) {
+                    mergedProfile.set(e.getKey(), e.getValue());
+                }
+            });
+            if (merged.path("skills").isEmpty() && quick.has("skills")) {
+                merged.set("skills", quick.get("skills"));
+            }
+            if (!merged.has("contact") && quick.has("contact")) {
+                merged.set("contact", quick.get("contact"));
+            }
+            merged.remove(ResumeHeuristicExtractor.MARKER_FIELD);
+
+            String json = canonicalizeSkills(mapper.writeValueAsString(merged));
+            profile.setProfileJson(json);
+            fillMissingFromJson(profile, json);
+        } catch (Exception e) {
+            System.out.println("Failed to merge parsed resume for profile " + profileId + ": " + e.getMessage());
+            return null;
+        }
+
+        int merged = jsonDataRepository.mergeParsedProfile(profile.getId(), profile.getCreatedAt(),
+                ResumeHeuristicExtractor.MARKER_FIELD, ResumeHeuristicExtractor.MARKER_VALUE,
+                profile.getProfileJson(), profile.getName(), profile.getYear(), profile.getDepartment(),
+                profile.getInstitution(), profile.getAvailability());
+        if (merged == 0) return null;
+
+        JsonData saved = jsonDataRepository.findById(profileId).orElse(null);
+        if (saved != null) refreshRecommendations(saved);
+        return saved;
+    }
+
+    // true while profile_json is only the local first pass (full parse still pending or failed)
+    public boolean isHeuristicOnly(JsonData profile) {
+        String json = profile == null ? null : profile.getProfileJson();
+        if (json == null || !json.contains(ResumeHeuristicExtractor.MARKER_FIELD)) return false;
+        try {
+            return ResumeHeuristicExtractor.MARKER_VALUE.equals(
+                    new ObjectMapper().readTree(json).path(ResumeHeuristicExtractor.MARKER_FIELD).asText(null));
+        } catch (Exception e) {
+            return false;
+        }
     }
 
     // NEW: Update only resume-related fields for an existing profile
@@ -295,9 +485,8 @@ Resume Text:
         // Validate incoming JSON; if invalid, replace with empty JSON object "{}"
         String validJson = "{}";
         if (json != null) {
-            try {
-                new ObjectMapper().readTree(json);
-                validJson = json;
+            try (var t = ServerTiming.phase("json")) {
+                validJson = canonicalizeSkills(json);
             } catch (Exception e) {
                 e.printStackTrace();
                 validJson = "{}";
@@ -308,13 +497,27 @@ Resume Text:
         profile.setProfileJson(validJson);
         if (resumePdf != null) {
             profile.setResumePdf(resumePdf);
+            profile.setResumeSha256(ResumeStorageService.sha256Hex(resumePdf));
+            profile.setResumeSize((long) resumePdf.length);
         }
-        profile.setCreatedAt(Instant.now().toString()); // Update timestamp
+        profile.setCreatedAt(Instant.now()); // Update timestamp
 
-        return jsonDataRepository.save(profile);
+        JsonData saved = jsonDataRepository.save(profile);
+        refreshRecommendations(saved);
+        return saved;
+    }
+
+    // Best-effort: re-rank this resume in the per-project candidate lists
+    public void refreshRecommendations(JsonData profile) {
+        try (var t = ServerTiming.phase("recommend")) {
+            recommendationService.onResumeSaved(profile.getId());
+        } catch (Exception e) {
+            System.out.println("Failed to update recommendations for " + profile.getEmail() + ": " + e.getMessage());
+        }
     }
 
     // New helper: fetch profile by email (used after login)
+    @Transactional(readOnly = true)
     public JsonData getProfileByEmail(String email) {
         if (email == null) return null;
         Optional<JsonData> opt = jsonDataRepository.findByEmail(email);
@@ -322,7 +525,21 @@ Resume Text:
     }
 
 
+    // Remove a stored profile (used to roll back a failed registration)
+    public void deleteProfileByEmail(String email) {
+        if (email == null) return;
+        jsonDataRepository.findByEmail(email).ifPresent(profile -> {
+            jsonDataRepository.delete(profile);
+            try {
+                recommendationService.onResumeDeleted(profile.getId());
+            } catch (Exception e) {
+                System.out.println("Failed to update recommendations for " + email + ": " + e.getMessage());
+            }
+        });
+    }
+
     // New helper: get profile for currently authenticated user
+    @Transactional(readOnly = true)
     public JsonData getProfileForCurrentUser() {
         var auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || auth.getName() == null) {
@@ -336,13 +553,14 @@ Resume Text:
 
 
     // New: send parsed resume JSON (best-effort) to Django ML resume endpoint
-    public void sendResumeJson(JsonData profile) {
+    // Failures never throw; they are queued for replay by DjangoMlClient.
+    public DjangoMlClient.SendResult sendResumeJson(JsonData profile) {
         if (profile == null) {
-            return;
+            return DjangoMlClient.SendResult.REJECTED;
         }
         String resumeJsonStr = profile.getProfileJson();
         if (resumeJsonStr == null || resumeJsonStr.isBlank()) {
-            return;
+            return DjangoMlClient.SendResult.REJECTED;
         }
 
         try {
@@ -363,34 +581,20 @@ Resume Text:
                 );
             }
 
-            String payloadStr = mapper.writeValueAsString(payload);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<String> request = new HttpEntity<>(payloadStr, headers);
-            RestTemplate restTemplate = new RestTemplate();
-
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    "http://localhost:31000/api/resume/json/",
-                    request,
-                    String.class
-            );
-
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                System.out.println("Failed to send resume JSON to Django ML service: "
-                        + response.getStatusCode() + " " + response.getBody());
-            }
+            String body = mapper.writeValueAsString(payload);
+            return ServerTiming.time("django", () -> djangoMlClient.sendResume(profile.getId(), body));
 
         } catch (Exception e) {
             System.out.println("Failed to send resume JSON to Django ML service: " + e.getMessage());
             // keep it best-effort — do not throw
+            return DjangoMlClient.SendResult.REJECTED;
         }
     }
 
     // New: send project JSON to Django ML endpoint
     // NOTE: this method no longer sends the owner's resume JSON.
-    public void sendProjectAndOwnerResume(ProjectData project) {
-        if (project == null) return;
+    public DjangoMlClient.SendResult sendProjectAndOwnerResume(ProjectData project) {
+        if (project == null) return DjangoMlClient.SendResult.REJECTED;
 
         ObjectMapper mapper = new ObjectMapper();
         try {
@@ -430,7 +634,7 @@ Resume Text:
                     "domains", domains,
                     "project_type", project.getType(),
                     "team_size", 0, // optional; set 0 if unknown
-                    "created_at", project.getCreatedAt()
+                    "created_at", String.valueOf(project.getCreatedAt())
             );
 
             // IMPORTANT: send numeric project_id (Long) — Django expects an integer
@@ -439,35 +643,17 @@ Resume Text:
                     "parsed_json", parsedJson
             );
 
-            String projectJson = mapper.writeValueAsString(payload);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<String> request = new HttpEntity<>(projectJson, headers);
-            RestTemplate restTemplate = new RestTemplate();
-
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    "http://localhost:31001/api/project/embed/",
-                    request,
-                    String.class
-            );
-            System.out.println(payload);
-            System.out.println("Sent project JSON to Django ML service, response: "
-                    + response.getStatusCode() + " - " + response.getBody());
-
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                System.out.println("Failed to send project JSON to Django ML service: "
-                        + response.getStatusCode() + " - " + response.getBody());
-            }
+            String body = mapper.writeValueAsString(payload);
+            return ServerTiming.time("django", () -> djangoMlClient.sendProject(project.getId(), body));
 
         } catch (Exception e) {
             System.out.println("Failed to send project JSON to Django ML service: " + e.getMessage());
+            return DjangoMlClient.SendResult.REJECTED;
         }
-
-        // Removed: previously the owner's resume JSON was looked up and sent here.
     }
 
     // New helper: fetch profile by id
+    @Transactional(readOnly = true)
     public JsonData getProfileById(Long id) {
         if (id == null) return null;
         Optional<JsonData> opt = jsonDataRepository.findById(id);
@@ -475,6 +661,7 @@ Resume Text:
     }
 
     // New helper: fetch profile by id and return top-level profile map (used by controller)
+    @Transactional(readOnly = true)
     public Map<String, Object> getUserProfileById(Long id) {
         if (id == null) return null;
         Optional<JsonData> opt = jsonDataRepository.findById(id);
@@ -490,10 +677,16 @@ Resume Text:
         profile.put("availability", p.getAvailability());
         // include parsed JSON resume under the same key used elsewhere
         profile.put("Resume", p.getProfileJson());
+        profile.put("reputation", ratingService.getReputation(p.getEmail()));
         // NEW: include PDF download URL instead of base64
         if (p.getResumePdf() != null) {
             profile.put("resumePdfUrl", "/api/resume/download/" + p.getId());
         }
         return profile;
     }
+
+    // Rating aggregates (count / average / std dev) kept by RatingService
+    public Map<String, Object> getReputation(String email) {
+        return ratingService.getReputation(email);
+    }
 }
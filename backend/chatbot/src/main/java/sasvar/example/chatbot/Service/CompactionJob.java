@@ -0,0 +1,153 @@
+package sasvar.example.chatbot.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Keeps the hot tables small: moves answered/stale teammate requests and long-completed
+// projects (with their team rows) into the *_archive tables.
+// Work is done in short keyset batches — one small transaction each, rows already locked by
+// user traffic are skipped, a lock_timeout caps any wait — with a pause between batches.
+@Service
+public class CompactionJob {
+
+    private static final String MOVE_REQUESTS_SQL = """
+            WITH batch AS (
+                SELECT id FROM project_team_request
+                 WHERE id > ?
+                   AND (status <> 'PENDING'
+                        OR (type = 'RATING_REQUEST' AND created_at < ?)
+                        OR (type <> 'RATING_REQUEST' AND created_at < ?))
+                 ORDER BY id
+                 LIMIT ?
+                 FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM project_team_request r USING batch
+                 WHERE r.id = batch.id
+                RETURNING r.*
+            )
+            INSERT INTO project_team_request_archive
+            SELECT moved.*, now() FROM moved
+            RETURNING id
+            """;
+
+    private static final String MOVE_PROJECTS_SQL = """
+            WITH batch AS (
+                SELECT id FROM projects
+                 WHERE id > ?
+                   AND status = 'COMPLETED'
+                   AND completed_at < ?
+                 ORDER BY id
+                 LIMIT ?
+                 FOR UPDATE SKIP LOCKED
+            ), team AS (
+                DELETE FROM project_team t USING batch
+                 WHERE t.project_id = batch.id
+                RETURNING t.*
+            ), team_archived AS (
+                INSERT INTO project_team_archive
+                SELECT team.*, now() FROM team
+            ), moved AS (
+                DELETE FROM projects p USING batch
+                 WHERE p.id = batch.id
+                RETURNING p.*
+            )
+            INSERT INTO projects_archive
+            SELECT moved.*, now() FROM moved
+            RETURNING id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ExploreFeedSnapshot exploreFeedSnapshot;
+
+    @Value("${compaction.batch-size:500}")
+    private int batchSize;
+
+    @Value("${compaction.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${compaction.max-batches:200}")
+    private int maxBatches;
+
+    @Value("${compaction.lock-timeout-ms:2000}")
+    private long lockTimeoutMs;
+
+    @Value("${compaction.request.stale-days:30}")
+    private int requestStaleDays;
+
+    @Value("${compaction.rating-request.stale-days:60}")
+    private int ratingRequestStaleDays;
+
+    @Value("${compaction.project.completed-grace-days:30}")
+    private int completedGraceDays;
+
+    @Scheduled(cron = "${compaction.cron:0 0 4 * * *}")
+    public void compact() {
+        Instant now = Instant.now();
+        Timestamp requestCutoff = Timestamp.from(now.minus(requestStaleDays, ChronoUnit.DAYS));
+        Timestamp ratingCutoff = Timestamp.from(now.minus(ratingRequestStaleDays, ChronoUnit.DAYS));
+        Timestamp projectCutoff = Timestamp.from(now.minus(completedGraceDays, ChronoUnit.DAYS));
+
+        int requests = run("project_team_request", (lastId, limit) ->
+                jdbcTemplate.queryForList(MOVE_REQUESTS_SQL, Long.class, lastId, ratingCutoff, requestCutoff, limit));
+        int projects = run("projects", (lastId, limit) ->
+                jdbcTemplate.queryForList(MOVE_PROJECTS_SQL, Long.class, lastId, projectCutoff, limit));
+
+        if (projects > 0) exploreFeedSnapshot.requestRebuild();
+        if (requests > 0 || projects > 0) {
+            System.out.println("Compaction archived " + requests + " requests and " + projects + " completed projects");
+        }
+    }
+
+    private interface Batch {
+        List<Long> move(long lastId, int limit);
+    }
+
+    // Walk the table by id, one short transaction per batch; returns rows moved
+    private int run(String table, Batch batch) {
+        long lastId = 0;
+        int moved = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            final long from = lastId;
+            List<Long> ids;
+            try {
+                ids = transactionTemplate.execute(tx -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+                    return batch.move(from, batchSize);
+                });
+            } catch (DataAccessException e) {
+                // lock timeout or similar: leave the rest for the next run
+                System.out.println("Compaction of " + table + " stopped: " + e.getMessage());
+                break;
+            }
+            if (ids == null || ids.isEmpty()) break;
+
+            moved += ids.size();
+            for (Long id : ids) lastId = Math.max(lastId, id);
+            if (ids.size() < batchSize) break;
+
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,181 @@
+package sasvar.example.chatbot.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+import sasvar.example.chatbot.Repository.MlSyncBacklogRepository;
+import sasvar.example.chatbot.Utils.CircuitBreaker;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// HTTP client for the Django ML sidecar (resume + project embedding endpoints).
+// Each endpoint has its own circuit breaker and short timeouts, so an outage costs a
+// fail-fast check instead of a hung request thread. Sends that are skipped or fail
+// are written to ml_sync_backlog for MlSyncReplayJob by a background thread, so the
+// request path does not wait on Postgres either.
+@Service
+public class DjangoMlClient {
+
+    public static final String RESUME = "RESUME";
+    public static final String PROJECT = "PROJECT";
+
+    public enum SendResult {
+        SENT,         // 2xx
+        REJECTED,     // nothing to send, or Django refused the payload (4xx) — retrying won't help
+        UNAVAILABLE   // breaker open, timeout or 5xx — queued for replay
+    }
+
+    private final MlSyncBacklogRepository backlogRepository;
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker resumeBreaker;
+    private final CircuitBreaker projectBreaker;
+    private final Counter skipped;
+    private final ThreadPoolExecutor backlogWriter;
+    // (kind:refId) already queued for backlogWriter; repeats while the breaker is open are dropped
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    @Value("${django.resume.url:http://localhost:31000/api/resume/json/}")
+    private String resumeUrl;
+
+    @Value("${django.project.url:http://localhost:31001/api/project/embed/}")
+    private String projectUrl;
+
+    public DjangoMlClient(MlSyncBacklogRepository backlogRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${django.connect-timeout-ms:500}") int connectTimeoutMs,
+                          @Value("${django.read-timeout-ms:3000}") int readTimeoutMs,
+                          @Value("${django.breaker.window-size:20}") int windowSize,
+                          @Value("${django.breaker.min-calls:5}") int minCalls,
+                          @Value("${django.breaker.failure-rate:0.5}") double failureRate,
+                          @Value("${django.breaker.open-ms:30000}") long openMs,
+                          @Value("${django.breaker.half-open-probes:2}") int halfOpenProbes) {
+        this.backlogRepository = backlogRepository;
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeoutMs);
+        factory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(factory);
+
+        this.resumeBreaker = new CircuitBreaker("django-resume", windowSize, minCalls, failureRate, openMs, halfOpenProbes);
+        this.projectBreaker = new CircuitBreaker("django-project", windowSize, minCalls, failureRate, openMs, halfOpenProbes);
+
+        for (CircuitBreaker breaker : new CircuitBreaker[]{resumeBreaker, projectBreaker}) {
+            Gauge.builder("django.breaker.state", breaker, b -> b.getState().ordinal())
+                    .tag("endpoint", breaker.getName())
+                    .description("Circuit breaker state (0 closed, 1 open, 2 half-open)")
+                    .register(meterRegistry);
+        }
+        this.skipped = Counter.builder("django.sends.deferred")
+                .description("Django ML sends skipped or failed and queued for replay")
+                .register(meterRegistry);
+
+        // one writer is plenty for single-row inserts; when its queue is full the caller writes
+        this.backlogWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(10_000),
+                r -> {
+                    Thread t = new Thread(r, "ml-sync-backlog");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // let queued backlog rows reach the database before the context closes
+        backlogWriter.shutdown();
+        backlogWriter.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public SendResult sendResume(Long resumeId, String payload) {
+        return send(RESUME, resumeId, resumeBreaker, resumeUrl, payload);
+    }
+
+    public SendResult sendProject(Long projectId, String payload) {
+        return send(PROJECT, projectId, projectBreaker, projectUrl, payload);
+    }
+
+    // true when the breaker would let a call through (used by the replay job)
+    public boolean isAvailable(String kind) {
+        CircuitBreaker breaker = RESUME.equals(kind) ? resumeBreaker : projectBreaker;
+        return breaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    // Warm the pooled keep-alive connections to both endpoints; breakers are not involved
+    public void preconnect() {
+        for (String url : new String[]{resumeUrl, projectUrl}) {
+            try {
+                restTemplate.execute(url, HttpMethod.HEAD, null, response -> null);
+            } catch (RestClientResponseException reached) {
+                // any HTTP answer means the connection is open
+            }
+        }
+    }
+
+    private SendResult send(String kind, Long refId, CircuitBreaker breaker, String url, String payload) {
+        if (!breaker.tryAcquire()) {
+            defer(kind, refId);
+            return SendResult.UNAVAILABLE;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        try {
+            ResponseEntity<String> response = restTemplate.postForEntity(url, new HttpEntity<>(payload, headers), String.class);
+            breaker.onSuccess();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                System.out.println("Django ML service (" + kind + ") answered " + response.getStatusCode());
+            }
+            return SendResult.SENT;
+        } catch (HttpClientErrorException e) {
+            // Django is up but refused this payload; not a health signal
+            breaker.onSuccess();
+            System.out.println("Django ML service rejected " + kind + " " + refId + ": " + e.getStatusCode());
+            return SendResult.REJECTED;
+        } catch (RestClientException e) {
+            breaker.onFailure();
+            System.out.println("Failed to send " + kind + " " + refId + " to Django ML service: " + e.getMessage());
+            defer(kind, refId);
+            return SendResult.UNAVAILABLE;
+        }
+    }
+
+    private void defer(String kind, Long refId) {
+        if (refId == null) return;
+        skipped.increment();
+        String key = kind + ":" + refId;
+        if (!queued.add(key)) return;
+        try {
+            backlogWriter.execute(() -> {
+                try {
+                    backlogRepository.insertIfAbsent(kind, refId);
+                } catch (Exception e) {
+                    // DB trouble — the send stays best-effort
+                    System.out.println("Could not record deferred " + kind + " " + refId + ": " + e.getMessage());
+                } finally {
+                    queued.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            // shutting down
+            queued.remove(key);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sasvar.example.chatbot.Dto.ProjectFeedItem;
+import sasvar.example.chatbot.Repository.ProjectRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Pre-serialized /api/projects/explore feed.
+// The whole feed is kept as one immutable JSON array (bytes) plus each item's offsets, so a
+// request is a reference read and, for ?days / paging, one copy of the selected slices — no
+// query, no Jackson. Writes that change the feed call requestRebuild(); a single background
+// thread rebuilds and swaps the reference. Bursts of writes coalesce into one rebuild, and a
+// periodic refresh picks up writes made by other instances.
+@Service
+public class ExploreFeedSnapshot {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // all = "[item,item,...]" in id order; item i is all[start[i] .. end[i])
+    record Snapshot(byte[] all, int[] start, int[] end, long[] createdAt, int[] newestFirst, Instant builtAt) {
+    }
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    // read-write on purpose: a read-only transaction may be routed to the replica and miss the write
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${explore.snapshot.enabled:true}")
+    private boolean enabled;
+
+    private volatile Snapshot current;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private ExecutorService executor;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "explore-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        rebuildTimer = Timer.builder("explore.snapshot.rebuild")
+                .description("Time to rebuild the pre-serialized explore feed")
+                .register(meterRegistry);
+        meterRegistry.gauge("explore.snapshot.projects", this, s -> {
+            Snapshot snap = s.current;
+            return snap == null ? 0 : snap.start().length;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        requestRebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${explore.snapshot.refresh-ms:60000}", initialDelayString = "${explore.snapshot.refresh-ms:60000}")
+    public void refresh() {
+        requestRebuild();
+    }
+
+    // Called after a write that changes the feed; returns at once
+    public void requestRebuild() {
+        if (!enabled) return;
+        // one queued rebuild is enough: it reads everything committed before it starts
+        if (rebuildQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    /**
+     * Feed JSON from the snapshot, or null while there is none yet (callers fall back to the DB).
+     * days limits it to projects created in the last N days, newest first (as listRecentProjects);
+     * page/size select a page of the result (see pageBounds).
+     */
+    public byte[] render(Integer days, Integer page, Integer size) {
+        Snapshot snap = current;
+        return snap == null ? null : render(snap, days, page, size, Instant.now());
+    }
+
+    static byte[] render(Snapshot snap, Integer days, Integer page, Integer size, Instant now) {
+        boolean recent = days != null && days > 0;
+        boolean paged = page != null || size != null;
+        if (!recent && !paged) return snap.all();
+
+        int n = snap.start().length;
+        int[] order;
+        int count;
+        if (recent) {
+            long cutoff = now.minus(days, ChronoUnit.DAYS).toEpochMilli();
+            order = snap.newestFirst();
+            count = 0;
+            while (count < n && snap.createdAt()[order[count]] >= cutoff) count++;
+        } else {
+            order = null;
+            count = n;
+        }
+
+        int from = 0;
+        int to = count;
+        if (paged) {
+            int[] bounds = pageBounds(count, page, size);
+            from = bounds[0];
+            to = bounds[1];
+        }
+
+        int bytes = 2 + Math.max(0, to - from - 1);
+        for (int k = from; k < to; k++) {
+            int i = order == null ? k : order[k];
+            bytes += snap.end()[i] - snap.start()[i];
+        }
+        byte[] out = new byte[bytes];
+        int pos = 0;
+        out[pos++] = '[';
+        for (int k = from; k < to; k++) {
+            int i = order == null ? k : order[k];
+            if (k > from) out[pos++] = ',';
+            int len = snap.end()[i] - snap.start()[i];
+            System.arraycopy(snap.all(), snap.start()[i], out, pos, len);
+            pos += len;
+        }
+        out[pos] = ']';
+        return out;
+    }
+
+    // [from, to) of the requested page among count items; size defaults to 50, capped at MAX_PAGE_SIZE.
+    // Shared with the DB fallback in ProjectController so both paths page the same way.
+    public static int[] pageBounds(int count, Integer page, Integer size) {
+        int pageSize = size == null ? 50 : Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        long first = (long) Math.max(0, page == null ? 0 : page) * pageSize;
+        int from = (int) Math.min(count, first);
+        return new int[]{from, Math.min(count, from + pageSize)};
+    }
+
+    private void rebuild() {
+        try {
+            long started = System.nanoTime();
+            Builder builder = new Builder();
+            transactionTemplate.executeWithoutResult(tx -> {
+                try (var rows = projectRepository.streamAllOrderById()) {
+                    rows.forEach(p -> {
+                        builder.add(ProjectFeedItem.from(p), p.getCreatedAt());
+                        entityManager.detach(p);
+                    });
+                }
+            });
+            current = builder.build();
+            rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            // keep serving the previous snapshot; the next write or refresh tries again
+            System.out.println("Explore feed snapshot rebuild failed: " + e.getMessage());
+        }
+    }
+
+    // Serializes items (in id order) into one array and records each item's offsets
+    static final class Builder {
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream(64 * 1024);
+        private final List<int[]> offsets = new ArrayList<>();
+        private final List<Long> created = new ArrayList<>();
+
+        Builder() {
+            buf.write('[');
+        }
+
+        void add(ProjectFeedItem item, Instant createdAt) {
+            if (!offsets.isEmpty()) buf.write(',');
+            int start = buf.size();
+            try {
+                MAPPER.writeValue(buf, item);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            offsets.add(new int[]{start, buf.size()});
+            created.add(createdAt == null ? Long.MIN_VALUE : createdAt.toEpochMilli());
+        }
+
+        Snapshot build() {
+            buf.write(']');
+            int n = offsets.size();
+            int[] start = new int[n];
+            int[] end = new int[n];
+            long[] createdAt = new long[n];
+            for (int i = 0; i < n; i++) {
+                start[i] = offsets.get(i)[0];
+                end[i] = offsets.get(i)[1];
+                createdAt[i] = created.get(i);
+            }
+            Integer[] byAge = new Integer[n];
+            for (int i = 0; i < n; i++) byAge[i] = i;
+            Arrays.sort(byAge, Comparator.comparingLong((Integer i) -> createdAt[i]).reversed());
+            int[] newestFirst = new int[n];
+            for (int i = 0; i < n; i++) newestFirst[i] = byAge[i];
+            return new Snapshot(buf.toByteArray(), start, end, createdAt, newestFirst, Instant.now());
+        }
+    }
+}
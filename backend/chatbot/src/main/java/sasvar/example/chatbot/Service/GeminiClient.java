@@ -0,0 +1,228 @@
+package sasvar.example.chatbot.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+import sasvar.example.chatbot.Exception.GeminiUnavailableException;
+import sasvar.example.chatbot.Utils.AdaptiveConcurrencyLimiter;
+import sasvar.example.chatbot.Utils.AdaptiveConcurrencyLimiter.Outcome;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+
+// All Gemini generateContent calls go through here.
+// An AIMD limiter keeps in-flight requests near the quota; 429/503 answers shrink the
+// limit and are retried after Retry-After (or exponential backoff) plus jitter.
+// Every call has one time budget (call-timeout-ms) covering the slot wait, the HTTP
+// exchange and any backoff; a timed-out exchange also shrinks the limit.
+@Service
+public class GeminiClient {
+
+    private static final String GEMINI_HOST = "https://generativelanguage.googleapis.com/";
+
+    private static final String GEMINI_URL =
+            "https://generativelanguage.googleapis.com/v1beta/models/" +
+                    "gemini-2.5-flash:generateContent?key=%s";
+
+    @Value("${gemini.api.key}")
+    private String apiKey;
+
+    private final DeadlineRequestFactory requestFactory;
+    private final RestTemplate restTemplate;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter throttled;
+
+    private final long callTimeoutMs;
+    private final long maxQueueMs;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public GeminiClient(MeterRegistry meterRegistry,
+                        @Value("${gemini.limiter.initial-limit:4}") int initialLimit,
+                        @Value("${gemini.limiter.min-limit:1}") int minLimit,
+                        @Value("${gemini.limiter.max-limit:32}") int maxLimit,
+                        @Value("${gemini.limiter.max-queue-ms:20000}") long maxQueueMs,
+                        @Value("${gemini.connect-timeout-ms:2000}") int connectTimeoutMs,
+                        @Value("${gemini.read-timeout-ms:30000}") int readTimeoutMs,
+                        @Value("${gemini.call-timeout-ms:60000}") long callTimeoutMs,
+                        @Value("${gemini.retry.max-attempts:3}") int maxAttempts,
+                        @Value("${gemini.retry.base-backoff-ms:500}") long baseBackoffMs,
+                        @Value("${gemini.retry.max-backoff-ms:10000}") long maxBackoffMs) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, 0.5, 1000);
+        this.requestFactory = new DeadlineRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.callTimeoutMs = callTimeoutMs;
+        this.maxQueueMs = maxQueueMs;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        Gauge.builder("gemini.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for Gemini calls")
+                .register(meterRegistry);
+        Gauge.builder("gemini.limiter.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Gemini calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("gemini.limiter.queue_depth", limiter, AdaptiveConcurrencyLimiter::getQueueDepth)
+                .description("Callers waiting for a Gemini slot")
+                .register(meterRegistry);
+        this.throttled = Counter.builder("gemini.throttled")
+                .description("Gemini responses rejected with 429/503")
+                .register(meterRegistry);
+    }
+
+    // POST a generateContent body and return the raw response body
+    public String generateContent(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> request = new HttpEntity<>(body, headers);
+
+        // one budget for the whole call: the slot wait, the HTTP exchange and backing off all spend it
+        long deadline = System.currentTimeMillis() + callTimeoutMs;
+        for (int attempt = 1; ; attempt++) {
+            acquireSlot(deadline);
+            Outcome outcome = Outcome.IGNORE;
+            HttpHeaders overloadHeaders;
+            requestFactory.deadline.set(deadline);
+            try {
+                ResponseEntity<String> response = restTemplate.postForEntity(
+                        String.format(GEMINI_URL, apiKey), request, String.class);
+                outcome = Outcome.SUCCESS;
+                return response.getBody();
+            } catch (HttpStatusCodeException e) {
+                if (!isOverload(e.getStatusCode())) {
+                    throw e;
+                }
+                outcome = Outcome.DROPPED;
+                throttled.increment();
+                overloadHeaders = e.getResponseHeaders();
+            } catch (ResourceAccessException e) {
+                if (!(e.getCause() instanceof SocketTimeoutException)) {
+                    throw e;
+                }
+                // a slow answer is the overload signal too; not retried, the budget is gone or nearly so
+                outcome = Outcome.DROPPED;
+                throttled.increment();
+                throw new GeminiUnavailableException("Resume parser timed out, please retry shortly",
+                        Math.max(1, baseBackoffMs / 1000));
+            } finally {
+                requestFactory.deadline.remove();
+                limiter.release(outcome);
+            }
+
+            // never sleep on the caller's thread for longer than max-backoff or the time left
+            long budget = Math.min(maxBackoffMs, deadline - System.currentTimeMillis());
+            long requested = retryAfterHeaderMs(overloadHeaders);
+            if (requested > budget) {
+                // the server wants more time than we can wait: hand its Retry-After to the client now
+                throw new GeminiUnavailableException("Resume parser is busy, please retry shortly",
+                        Math.max(1, (requested + 999) / 1000));
+            }
+            long delay = Math.min(budget, backoffMs(requested, attempt));
+            if (attempt >= maxAttempts || delay <= 0) {
+                throw new GeminiUnavailableException("Resume parser is busy, please retry shortly",
+                        Math.max(1, (Math.max(requested, delay) + 999) / 1000));
+            }
+            sleep(delay);
+        }
+    }
+
+    private void acquireSlot(long deadline) {
+        try {
+            long wait = Math.min(maxQueueMs, deadline - System.currentTimeMillis());
+            if (wait <= 0 || !limiter.acquire(wait)) {
+                throw new GeminiUnavailableException("Resume parser is busy, please retry shortly",
+                        Math.max(1, maxQueueMs / 1000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiUnavailableException("Interrupted while waiting for the resume parser", 1);
+        }
+    }
+
+    private static boolean isOverload(HttpStatusCode status) {
+        return status.value() == 429 || status.value() == 503;
+    }
+
+    // Open (and keep alive) a TLS connection to the Gemini host without spending quota.
+    // Any HTTP answer counts as reached; only connect/TLS failures are errors.
+    // Connect and read are each cut to timeoutMs, so an unreachable host fails fast.
+    public void preconnect(long timeoutMs) {
+        requestFactory.deadline.set(System.currentTimeMillis() + timeoutMs);
+        try {
+            restTemplate.execute(GEMINI_HOST, HttpMethod.HEAD, null, response -> null);
+        } catch (RestClientResponseException reached) {
+            // 4xx/5xx still means DNS, TCP and TLS are done
+        } finally {
+            requestFactory.deadline.remove();
+        }
+    }
+
+    // Retry-After (seconds or HTTP-date) in ms, or -1 when absent or malformed
+    static long retryAfterHeaderMs(HttpHeaders headers) {
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || retryAfter.isBlank()) return -1;
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim())) * 1000;
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+            } catch (Exception malformed) {
+                return -1;
+            }
+        }
+    }
+
+    // Honour Retry-After when given; otherwise exponential backoff. Always jittered.
+    private long backoffMs(long retryAfterMs, int attempt) {
+        long base = retryAfterMs >= 0
+                ? retryAfterMs
+                : Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 16));
+        // up to +50% jitter so queued retries do not return in lockstep
+        return base + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiUnavailableException("Interrupted while backing off from the resume parser", 1);
+        }
+    }
+
+    // Applies the configured timeouts, shortened to what is left of the current call's budget.
+    // HttpURLConnection's read timeout is per read; Gemini sends the whole body at once, so
+    // in practice it bounds the exchange.
+    private static final class DeadlineRequestFactory extends SimpleClientHttpRequestFactory {
+        private final ThreadLocal<Long> deadline = new ThreadLocal<>();
+
+        @Override
+        protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+            super.prepareConnection(connection, httpMethod);
+            Long until = deadline.get();
+            if (until == null) return;
+            // 0 would mean "no timeout", so never go below 1 ms
+            int left = (int) Math.max(1, Math.min(Integer.MAX_VALUE, until - System.currentTimeMillis()));
+            connection.setConnectTimeout(Math.min(connection.getConnectTimeout(), left));
+            connection.setReadTimeout(Math.min(connection.getReadTimeout(), left));
+        }
+    }
+}
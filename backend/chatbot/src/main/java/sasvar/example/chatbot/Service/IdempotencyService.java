@@ -0,0 +1,202 @@
+package sasvar.example.chatbot.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Stored responses for Idempotency-Key requests (table idempotency_key, see V10).
+// claim() decides whether a request runs (OWNER), is answered from the stored response (REPLAY),
+// reuses a key for a different body (MISMATCH) or has to wait for the first request (IN_PROGRESS).
+// Waiters on this instance are woken as soon as the owner finishes; across instances they poll.
+// Each claim carries an owner token: complete/release only apply while the row still has it,
+// and a heartbeat keeps locked_at fresh for the keys this instance is still running.
+@Service
+public class IdempotencyService {
+
+    public enum Claim { OWNER, REPLAY, MISMATCH, IN_PROGRESS }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    // token is set for OWNER and has to be passed back to complete/release
+    public record Outcome(Claim claim, StoredResponse response, String token) {
+    }
+
+    private static final long POLL_MS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.max-rows:100000}")
+    private int maxRows;
+
+    // an IN_PROGRESS row not refreshed for this long belongs to a request (or instance) that died;
+    // the next retry takes it over. Live owners refresh it every heartbeat-ms.
+    @Value("${idempotency.lease-ms:120000}")
+    private long leaseMs;
+
+    // keys this instance is running -> their owner token and the future local waiters block on
+    private record Running(String token, CompletableFuture<Void> done) {
+    }
+
+    private final Map<String, Running> running = new ConcurrentHashMap<>();
+
+    public Outcome claim(String keyHash, String fingerprint) {
+        Instant now = Instant.now();
+        String token = UUID.randomUUID().toString();
+        // an expired row (not purged yet) counts as absent: the insert takes it over
+        List<String> inserted = jdbcTemplate.queryForList("""
+                INSERT INTO idempotency_key (key_hash, fingerprint, status, expires_at, owner_token)
+                VALUES (?, ?, 'IN_PROGRESS', ?, ?)
+                ON CONFLICT (key_hash) DO UPDATE
+                   SET fingerprint = EXCLUDED.fingerprint, status = 'IN_PROGRESS',
+                       response_status = NULL, response_content_type = NULL, response_body = NULL,
+                       created_at = now(), locked_at = now(), expires_at = EXCLUDED.expires_at,
+                       owner_token = EXCLUDED.owner_token
+                 WHERE idempotency_key.expires_at <= now()
+                RETURNING key_hash
+                """, String.class, keyHash, fingerprint, Timestamp.from(now.plus(ttlHours, ChronoUnit.HOURS)), token);
+        if (!inserted.isEmpty()) return owner(keyHash, token);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("""
+                SELECT fingerprint, status, response_status, response_content_type, response_body, locked_at
+                  FROM idempotency_key WHERE key_hash = ? AND expires_at > now()
+                """, keyHash);
+        if (rows.isEmpty()) {
+            // released (failed) or expired between our insert and select: run it again
+            return claim(keyHash, fingerprint);
+        }
+        Map<String, Object> row = rows.get(0);
+        if (!fingerprint.equals(row.get("fingerprint"))) return new Outcome(Claim.MISMATCH, null, null);
+        if ("COMPLETED".equals(row.get("status"))) {
+            return new Outcome(Claim.REPLAY, new StoredResponse(
+                    ((Number) row.get("response_status")).intValue(),
+                    (String) row.get("response_content_type"),
+                    (byte[]) row.get("response_body")), null);
+        }
+
+        int takenOver = jdbcTemplate.update("""
+                UPDATE idempotency_key SET locked_at = now(), owner_token = ?
+                 WHERE key_hash = ? AND status = 'IN_PROGRESS' AND locked_at < ?
+                """, token, keyHash, Timestamp.from(now.minusMillis(leaseMs)));
+        return takenOver > 0 ? owner(keyHash, token) : new Outcome(Claim.IN_PROGRESS, null, null);
+    }
+
+    // Blocks until the first request with this key finishes (or times out), then claims again
+    public Outcome await(String keyHash, String fingerprint, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return new Outcome(Claim.IN_PROGRESS, null, null);
+
+            Running local = running.get(keyHash);
+            if (local != null) {
+                try {
+                    local.done().get(Math.min(left, POLL_MS * 10), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException | java.util.concurrent.ExecutionException ignored) {
+                }
+            } else {
+                Thread.sleep(Math.min(left, POLL_MS));
+            }
+
+            Outcome outcome = claim(keyHash, fingerprint);
+            if (outcome.claim() != Claim.IN_PROGRESS) return outcome;
+        }
+    }
+
+    // no-op when the key was taken over by another owner in the meantime
+    public void complete(String keyHash, String token, int status, String contentType, byte[] body) {
+        try {
+            int updated = jdbcTemplate.update("""
+                    UPDATE idempotency_key
+                       SET status = 'COMPLETED', response_status = ?, response_content_type = ?, response_body = ?
+                     WHERE key_hash = ? AND owner_token = ? AND status = 'IN_PROGRESS'
+                    """, status, contentType, body, keyHash, token);
+            if (updated == 0) System.out.println("Idempotency key lost to another owner, response not stored");
+        } finally {
+            wake(keyHash, token);
+        }
+    }
+
+    // failed (5xx / exception) or unstorable requests are not replayed: drop the key so a retry runs again
+    public void release(String keyHash, String token) {
+        try {
+            jdbcTemplate.update("""
+                    DELETE FROM idempotency_key
+                     WHERE key_hash = ? AND owner_token = ? AND status = 'IN_PROGRESS'
+                    """, keyHash, token);
+        } finally {
+            wake(keyHash, token);
+        }
+    }
+
+    // keeps the lease of every key still running here, however long the request takes
+    @Scheduled(fixedDelayString = "${idempotency.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (running.isEmpty()) return;
+        String[] tokens = running.values().stream().map(Running::token).toArray(String[]::new);
+        try {
+            jdbcTemplate.update("""
+                    UPDATE idempotency_key SET locked_at = now()
+                     WHERE owner_token = ANY(?) AND status = 'IN_PROGRESS'
+                    """, (Object) tokens);
+        } catch (Exception e) {
+            System.out.println("Idempotency lease refresh skipped: " + e.getMessage());
+        }
+    }
+
+    public void record(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    // expired rows first, then the oldest ones beyond max-rows
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purge() {
+        try {
+            int expired = jdbcTemplate.update("DELETE FROM idempotency_key WHERE expires_at < now()");
+            int trimmed = jdbcTemplate.update("""
+                    DELETE FROM idempotency_key
+                     WHERE key_hash IN (SELECT key_hash FROM idempotency_key
+                                         WHERE status = 'COMPLETED'
+                                         ORDER BY expires_at DESC
+                                         OFFSET ?)
+                    """, maxRows);
+            if (expired + trimmed > 0) {
+                System.out.println("Idempotency keys purged: " + expired + " expired, " + trimmed + " over the cap");
+            }
+        } catch (Exception e) {
+            System.out.println("Idempotency key purge skipped: " + e.getMessage());
+        }
+    }
+
+    private Outcome owner(String keyHash, String token) {
+        running.put(keyHash, new Running(token, new CompletableFuture<>()));
+        return new Outcome(Claim.OWNER, null, token);
+    }
+
+    // only the owner's own entry: a newer owner of the same key keeps its waiters
+    private void wake(String keyHash, String token) {
+        Running r = running.get(keyHash);
+        if (r != null && r.token().equals(token) && running.remove(keyHash, r)) r.done().complete(null);
+    }
+}
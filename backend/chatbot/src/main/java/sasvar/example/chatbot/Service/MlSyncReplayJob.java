@@ -0,0 +1,59 @@
+package sasvar.example.chatbot.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import sasvar.example.chatbot.Database.MlSyncBacklog;
+import sasvar.example.chatbot.Repository.JsonDataRepository;
+import sasvar.example.chatbot.Repository.MlSyncBacklogRepository;
+import sasvar.example.chatbot.Repository.ProjectRepository;
+
+import java.util.List;
+
+// Re-sends resumes/projects that were deferred while the Django ML service was down.
+// Runs only while the endpoint's breaker lets calls through, and stops at the first
+// failure so a half-open breaker only ever sees a single probe from here.
+@Service
+public class MlSyncReplayJob {
+
+    @Autowired
+    private MlSyncBacklogRepository backlogRepository;
+
+    @Autowired
+    private JsonDataRepository jsonDataRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ChatBotService chatBotService;
+
+    @Autowired
+    private DjangoMlClient djangoMlClient;
+
+    @Scheduled(fixedDelayString = "${django.replay.interval-ms:30000}")
+    public void replay() {
+        replay(DjangoMlClient.RESUME);
+        replay(DjangoMlClient.PROJECT);
+    }
+
+    private void replay(String kind) {
+        if (!djangoMlClient.isAvailable(kind)) return;
+
+        List<MlSyncBacklog> rows = backlogRepository.findTop50ByKindOrderByIdAsc(kind);
+        for (MlSyncBacklog row : rows) {
+            DjangoMlClient.SendResult result = DjangoMlClient.RESUME.equals(kind)
+                    ? jsonDataRepository.findById(row.getRefId())
+                        .map(chatBotService::sendResumeJson)
+                        .orElse(DjangoMlClient.SendResult.REJECTED)
+                    : projectRepository.findById(row.getRefId())
+                        .map(chatBotService::sendProjectAndOwnerResume)
+                        .orElse(DjangoMlClient.SendResult.REJECTED);
+
+            if (result == DjangoMlClient.SendResult.UNAVAILABLE) {
+                return; // still down — keep the row and try again next round
+            }
+            backlogRepository.delete(row);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package sasvar.example.chatbot.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import sasvar.example.chatbot.Exception.InvalidResumeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-side resume text extraction (PDFBox).
+// The calling thread loads the document once (page count, limits) and strips the first share of
+// pages itself; longer documents give the other shares to a small fixed pool. PDDocument is not
+// thread-safe, so each extra worker loads its own copy once and keeps it for its whole share.
+// Pages are stripped one at a time with a deadline/interrupt check in between: PDFBox does not
+// react to interrupts, so cancel(true) and the timeout can only stop a worker between pages.
+@Service
+public class PdfTextExtractor {
+
+    @Value("${resume.pdf.max-pages:20}")
+    private int maxPages;
+
+    @Value("${resume.pdf.extract-timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${resume.pdf.extract-threads:4}")
+    private int threads;
+
+    @Value("${resume.pdf.pages-per-task:2}")
+    private int pagesPerTask;
+
+    private ThreadPoolExecutor pool;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger n = new AtomicInteger();
+        // bounded queue + AbortPolicy: when the pool is saturated uploads are rejected
+        // instead of piling up unbounded work behind one large document
+        pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                r -> {
+                    Thread t = new Thread(r, "pdf-extract-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Extract text from an uploaded PDF part (copied to a temp file so workers can re-open it)
+    public String extractText(MultipartFile pdf) throws IOException {
+        Path tmp = Files.createTempFile("resume-", ".pdf");
+        try {
+            try (InputStream in = pdf.getInputStream()) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return extract(() -> new RandomAccessReadBufferedFile(tmp.toFile()));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Extract text from PDF bytes already in memory (legacy base64 uploads)
+    public String extractText(byte[] pdf) throws IOException {
+        return extract(() -> new RandomAccessReadBuffer(pdf));
+    }
+
+    private interface Source {
+        RandomAccessRead open() throws IOException;
+    }
+
+    private String extract(Source source) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        PDDocument doc;
+        try {
+            doc = Loader.loadPDF(source.open());
+        } catch (IOException e) {
+            throw new InvalidResumeException("Resume PDF could not be read");
+        }
+        try (doc) {
+            int pageCount = doc.getNumberOfPages();
+            if (pageCount == 0) {
+                return "";
+            }
+            if (pageCount > maxPages) {
+                throw new InvalidResumeException("Resume PDF has " + pageCount + " pages (max " + maxPages + ")");
+            }
+
+            // contiguous shares of at least pagesPerTask pages, at most one per pool thread;
+            // page numbers are 1-based and inclusive, as PDFTextStripper expects
+            int shares = Math.max(1, Math.min(threads, (pageCount + pagesPerTask - 1) / pagesPerTask));
+            int perShare = (pageCount + shares - 1) / shares;
+
+            List<Future<String>> parts = new ArrayList<>();
+            try {
+                for (int from = 1 + perShare; from <= pageCount; from += perShare) {
+                    int first = from;
+                    int last = Math.min(pageCount, from + perShare - 1);
+                    parts.add(pool.submit(() -> {
+                        try (PDDocument copy = Loader.loadPDF(source.open())) {
+                            return stripPages(copy, first, last, deadline);
+                        }
+                    }));
+                }
+            } catch (RejectedExecutionException e) {
+                parts.forEach(f -> f.cancel(true));
+                throw new InvalidResumeException("Resume extraction is busy, please retry");
+            }
+
+            StringBuilder text = new StringBuilder();
+            try {
+                text.append(stripPages(doc, 1, Math.min(pageCount, perShare), deadline));
+                for (Future<String> part : parts) {
+                    long remaining = deadline - System.nanoTime();
+                    text.append(part.get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+                }
+            } catch (TimeoutException e) {
+                throw new InvalidResumeException("Resume PDF took too long to process");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while extracting resume text", e);
+            } catch (IOException | ExecutionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    throw new InvalidResumeException("Resume PDF took too long to process");
+                }
+                throw new InvalidResumeException("Resume PDF could not be read");
+            } finally {
+                // takes effect at the worker's next page boundary
+                parts.forEach(f -> f.cancel(true));
+            }
+            return text.toString();
+        }
+    }
+
+    // Strips pages first..last of an open document one page at a time, giving up between pages
+    // once the deadline has passed or the task was cancelled
+    private static String stripPages(PDDocument doc, int first, int last, long deadline)
+            throws IOException, TimeoutException, InterruptedException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setSortByPosition(true);
+        StringBuilder text = new StringBuilder();
+        for (int page = first; page <= last; page++) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (System.nanoTime() > deadline) throw new TimeoutException();
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            text.append(stripper.getText(doc));
+        }
+        return text.toString();
+    }
+}
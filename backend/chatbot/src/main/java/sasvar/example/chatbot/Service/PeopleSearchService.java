@@ -0,0 +1,160 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sasvar.example.chatbot.Dto.PersonSummary;
+import sasvar.example.chatbot.Utils.SkillDictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// People search over parsed resumes.
+// Every filter maps onto an index from V5__people_search_indexes: skills and by_domain
+// levels are jsonb containment (GIN, jsonb_path_ops), the rest are btree equality.
+// Pages are keyed on id, so deep pages cost the same as the first one.
+@Service
+public class PeopleSearchService {
+
+    public static final int MAX_PAGE_SIZE = 50;
+    private static final int SKILL_SAMPLE = 12;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    public record Page(List<PersonSummary> items, Long nextCursor) {
+    }
+
+    /**
+     * @param skills     all must be present (case-insensitive, any known alias) under skills.*
+     * @param level      experience_level.overall
+     * @param byDomain   experience_level.by_domain entries that must match, e.g. ml_ai -> advanced
+     * @param afterId    keyset cursor: the nextCursor of the previous page
+     */
+    @Transactional(readOnly = true)
+    public Page search(List<String> skills,
+                       String level,
+                       Map<String, String> byDomain,
+                       String availability,
+                       String department,
+                       String institution,
+                       Long afterId,
+                       int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        StringBuilder sql = new StringBuilder("""
+                SELECT r.id, r.email, r.name, r.year, r.department, r.institution, r.availability,
+                       r.experience_overall,
+                       jsonb_path_query_array(r.skill_tags, '$[0 to %d]')::text AS skills
+                  FROM resume r
+                 WHERE 1 = 1
+                """.formatted(SKILL_SAMPLE - 1));
+        List<Object> args = new ArrayList<>();
+
+        List<String> wanted = skills == null ? List.of() : skills.stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(skillDictionary::canonicalize)
+                .distinct()
+                .toList();
+        // skills outside the dictionary go into one containment probe; known skills match any
+        // of their spellings, since resumes parsed before the dictionary keep their raw strings
+        List<String> plain = new ArrayList<>();
+        for (String skill : wanted) {
+            List<String> spellings = skillDictionary.spellingsOf(skill);
+            if (spellings.size() == 1) {
+                plain.add(skill);
+                continue;
+            }
+            sql.append("   AND (");
+            for (int i = 0; i < spellings.size(); i++) {
+                if (i > 0) sql.append(" OR ");
+                sql.append("r.skill_tags @> ?::jsonb");
+                args.add(toJson(List.of(spellings.get(i))));
+            }
+            sql.append(")\n");
+        }
+        if (!plain.isEmpty()) {
+            sql.append("   AND r.skill_tags @> ?::jsonb\n");
+            args.add(toJson(plain));
+        }
+        if (isSet(level)) {
+            sql.append("   AND r.experience_overall = ?\n");
+            args.add(level.trim().toLowerCase(Locale.ROOT));
+        }
+        if (byDomain != null && !byDomain.isEmpty()) {
+            // domain_levels keeps the by_domain keys as written and lower-cases the levels
+            ObjectNode domains = MAPPER.createObjectNode();
+            byDomain.forEach((d, l) -> domains.put(d.trim(), l.trim().toLowerCase(Locale.ROOT)));
+            sql.append("   AND r.domain_levels @> ?::jsonb\n");
+            args.add(domains.toString());
+        }
+        if (isSet(availability)) {
+            sql.append("   AND lower(r.availability) = ?\n");
+            args.add(availability.trim().toLowerCase(Locale.ROOT));
+        }
+        if (isSet(department)) {
+            sql.append("   AND lower(r.department) = ?\n");
+            args.add(department.trim().toLowerCase(Locale.ROOT));
+        }
+        if (isSet(institution)) {
+            sql.append("   AND lower(r.institution) = ?\n");
+            args.add(institution.trim().toLowerCase(Locale.ROOT));
+        }
+        if (afterId != null) {
+            sql.append("   AND r.id > ?\n");
+            args.add(afterId);
+        }
+        // one extra row tells us whether there is a next page
+        sql.append(" ORDER BY r.id\n LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<PersonSummary> rows = jdbcTemplate.query(sql.toString(), (rs, i) -> new PersonSummary(
+                rs.getLong("id"),
+                rs.getString("email"),
+                rs.getString("name"),
+                rs.getString("year"),
+                rs.getString("department"),
+                rs.getString("institution"),
+                rs.getString("availability"),
+                rs.getString("experience_overall"),
+                parseSkills(rs.getString("skills"))
+        ), args.toArray());
+
+        if (rows.size() > pageSize) {
+            List<PersonSummary> page = rows.subList(0, pageSize);
+            return new Page(List.copyOf(page), page.get(pageSize - 1).id());
+        }
+        return new Page(rows, null);
+    }
+
+    private static boolean isSet(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode search filter", e);
+        }
+    }
+
+    private static List<String> parseSkills(String json) {
+        if (json == null) return List.of();
+        try {
+            return List.of(MAPPER.readValue(json, String[].class));
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import sasvar.example.chatbot.Dto.ProjectRecord;
+import sasvar.example.chatbot.Utils.SkillDictionary;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.*;
+
+// Admin NDJSON import/export of projects.
+// Import streams the body line by line and writes chunks with one multi-row INSERT each
+// (arrays bound once, expanded with unnest); the same statement queues every new id for the
+// Django embed in ml_sync_backlog, which MlSyncReplayJob drains at its own pace.
+@Service
+public class ProjectBulkService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private static final String INSERT_SQL = """
+            WITH ins AS (
+                INSERT INTO projects (title, project_type, visibility, required_skills, preferred_technologies,
+                                      github_repo, description, domain, email, created_at, status, completed_at)
+                SELECT t, ty, v, rs, pt, g, d, dm, e, COALESCE(c, now()), s,
+                       CASE WHEN s = 'COMPLETED' THEN now() END
+                  FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[],
+                              ?::text[], ?::text[], ?::text[], ?::timestamptz[], ?::text[])
+                       AS u(t, ty, v, rs, pt, g, d, dm, e, c, s)
+                RETURNING id, status
+            ), queued AS (
+                INSERT INTO ml_sync_backlog (kind, ref_id, created_at)
+                SELECT 'PROJECT', id, now() FROM ins WHERE status = 'ACTIVE'
+                ON CONFLICT (kind, ref_id) DO NOTHING
+            )
+            SELECT count(*) FROM ins
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Autowired
+    private ExploreFeedSnapshot exploreFeedSnapshot;
+
+    @Value("${projects.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public record ImportReport(long imported, long failed, List<String> errors, long elapsedMs, double rowsPerSecond) {
+    }
+
+    // defaultOwner is used for lines without an email/ownerEmail field
+    public ImportReport importNdjson(InputStream in, String defaultOwner) throws IOException {
+        long started = System.nanoTime();
+        long imported = 0;
+        long failed = 0;
+        List<String> errors = new ArrayList<>();
+        List<ProjectRecord> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            String problem;
+            try {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> body = MAPPER.readValue(line, Map.class);
+                ProjectRecord r = ProjectRecord.from(body);
+                problem = validate(r);
+                if (problem == null) {
+                    chunk.add(r);
+                }
+            } catch (Exception e) {
+                problem = "not a JSON object (" + e.getClass().getSimpleName() + ")";
+            }
+            if (problem != null) {
+                failed++;
+                if (errors.size() < MAX_REPORTED_ERRORS) errors.add("line " + lineNo + ": " + problem);
+                continue;
+            }
+            if (chunk.size() >= chunkSize) {
+                imported += writeChunk(chunk, defaultOwner);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += writeChunk(chunk, defaultOwner);
+        }
+
+        // candidate lists for the new active projects, built once at the end
+        if (imported > 0) {
+            recommendationService.backfillMissingLists();
+            exploreFeedSnapshot.requestRebuild();
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        double rps = Math.round(imported * 10_000.0 / elapsedMs) / 10.0;
+        System.out.println("Project import: " + imported + " rows, " + failed + " rejected, " + rps + " rows/s");
+        return new ImportReport(imported, failed, errors, elapsedMs, rps);
+    }
+
+    // Writes every project as one NDJSON line (re-importable); returns rows written
+    public long exportNdjson(OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long[] count = {0};
+        try (JsonGenerator gen = MAPPER.getFactory().createGenerator(out)) {
+            gen.setRootValueSeparator(null);
+            projectService.forEachProject(p -> {
+                try {
+                    MAPPER.writeValue(gen, ProjectRecord.of(p));
+                    gen.writeRaw('\n');
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        System.out.println("Project export: " + count[0] + " rows, "
+                + Math.round(count[0] * 10_000.0 / elapsedMs) / 10.0 + " rows/s");
+        return count[0];
+    }
+
+    private static String validate(ProjectRecord r) {
+        if (!r.hasRequiredFields()) return "missing title, type, visibility or requiredSkills";
+        if (r.status() != null && !"ACTIVE".equals(r.status()) && !"COMPLETED".equals(r.status())) {
+            return "status must be ACTIVE or COMPLETED";
+        }
+        if (r.createdAt() != null) {
+            try {
+                Instant.parse(r.createdAt());
+            } catch (Exception e) {
+                return "createdAt must be an ISO-8601 instant";
+            }
+        }
+        return null;
+    }
+
+    private long writeChunk(List<ProjectRecord> rows, String defaultOwner) {
+        int n = rows.size();
+        String[][] cols = new String[11][n];
+        for (int i = 0; i < n; i++) {
+            ProjectRecord r = rows.get(i);
+            cols[0][i] = r.title();
+            cols[1][i] = r.type();
+            cols[2][i] = r.visibility();
+            cols[3][i] = skillDictionary.normalizeCsv(r.requiredSkills());
+            cols[4][i] = skillDictionary.normalizeCsv(r.preferredTechnologies());
+            cols[5][i] = r.githubRepo();
+            cols[6][i] = r.description();
+            cols[7][i] = r.domain();
+            cols[8][i] = r.email() == null || r.email().isBlank() ? defaultOwner : r.email();
+            cols[9][i] = r.createdAt();
+            cols[10][i] = r.status() == null ? "ACTIVE" : r.status();
+        }
+
+        Long inserted = jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL)) {
+                for (int c = 0; c < cols.length; c++) {
+                    Array arr = con.createArrayOf("text", cols[c]);
+                    ps.setArray(c + 1, arr);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            }
+        });
+        return inserted == null ? 0 : inserted;
+    }
+}
@@ -1,17 +1,33 @@
 package sasvar.example.chatbot.Service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import sasvar.example.chatbot.Database.ProjectData;
+import sasvar.example.chatbot.Dto.ProjectDashboard;
+import sasvar.example.chatbot.Dto.ProjectFeedItem;
 import sasvar.example.chatbot.Repository.ProjectRepository;
+import sasvar.example.chatbot.Utils.ServerTiming;
 import sasvar.example.chatbot.Repository.ProjectTeamRepository; // { added import }
 import sasvar.example.chatbot.Database.ProjectTeam; // { added import }
+import sasvar.example.chatbot.Utils.SkillDictionary;
 
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProjectService {
@@ -28,6 +44,18 @@ public class ProjectService {
     @Autowired
     private ProjectTeamService projectTeamService;
 
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Autowired
+    private ExploreFeedSnapshot exploreFeedSnapshot;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public ProjectData createProject(String title,
                                      String type,
                                      String visibility,
@@ -47,13 +75,14 @@ public class ProjectService {
         project.setTitle(title);
         project.setType(type);
         project.setVisibility(visibility);
-        project.setRequiredSkills(requiredSkillsCsv);
+        // canonical skill names ("ReactJS" -> "react") so matching never has to be fuzzy
+        project.setRequiredSkills(skillDictionary.normalizeCsv(requiredSkillsCsv));
         project.setGithubRepo(githubRepo);
         project.setDescription(description);
         project.setDomain(domain); // persist domain
-        project.setPreferredTechnologies(preferredTechnologiesCsv); // NEW: persist preferred techs
+        project.setPreferredTechnologies(skillDictionary.normalizeCsv(preferredTechnologiesCsv)); // NEW: persist preferred techs
         project.setEmail(email);
-        project.setCreatedAt(Instant.now().toString());
+        project.setCreatedAt(Instant.now());
 
         ProjectData saved = projectRepository.save(project);
 
@@ -64,9 +93,18 @@ public class ProjectService {
             System.out.println("Failed to send project/resume to Django ML: " + e.getMessage());
         }
 
+        // Best-effort: build the project's candidate list
+        try (var t = ServerTiming.phase("recommend")) {
+            recommendationService.onProjectCreated(saved.getId());
+        } catch (Exception e) {
+            System.out.println("Failed to build recommendations for project " + saved.getId() + ": " + e.getMessage());
+        }
+
+        exploreFeedSnapshot.requestRebuild();
         return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<ProjectData> listProjectsForCurrentUser() {
         var auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || auth.getName() == null) {
@@ -84,29 +122,114 @@ public class ProjectService {
         // fetch team rows and project ids
         List<ProjectTeam> teamRows = projectTeamRepository.findAllByMemberEmail(email);
         if (teamRows != null && !teamRows.isEmpty()) {
+            Set<Long> seen = new HashSet<>();
+            for (ProjectData p : result) seen.add(p.getId());
+
             List<Long> teammateProjectIds = teamRows.stream()
                     .map(ProjectTeam::getProjectId)
-                    .distinct()
+                    .filter(seen::add)
                     .collect(Collectors.toList());
 
             if (!teammateProjectIds.isEmpty()) {
-                List<ProjectData> teammateProjects = projectRepository.findAllById(teammateProjectIds);
-                // merge avoiding duplicates
-                for (ProjectData p : teammateProjects) {
-                    boolean exists = result.stream().anyMatch(r -> r.getId() != null && r.getId().equals(p.getId()));
-                    if (!exists) result.add(p);
-                }
+                result.addAll(projectRepository.findAllById(teammateProjectIds));
             }
         }
 
         return result;
     }
 
+    // Owned + joined projects with team sizes and pending counts, from one query.
+    // Rows are merged by id in a single pass (owner wins over member).
+    @Transactional(readOnly = true)
+    public ProjectDashboard getDashboardForCurrentUser() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+
+        List<Object[]> rows = projectRepository.findDashboardRows(auth.getName());
+        Map<Long, ProjectDashboard.Item> byId = new LinkedHashMap<>();
+        long incoming = 0;
+        for (Object[] r : rows) {
+            incoming = ((Number) r[15]).longValue();
+            if (r[0] == null) continue; // no projects at all
+            Long id = ((Number) r[0]).longValue();
+            boolean owner = Boolean.TRUE.equals(r[12]);
+            ProjectDashboard.Item existing = byId.get(id);
+            if (existing != null && (!owner || "OWNER".equals(existing.role()))) continue;
+            byId.put(id, new ProjectDashboard.Item(
+                    id,
+                    (String) r[1],
+                    (String) r[2],
+                    (String) r[3],
+                    (String) r[4],
+                    (String) r[5],
+                    (String) r[6],
+                    (String) r[7],
+                    (String) r[8],
+                    timestampString(r[9]),
+                    (String) r[10],
+                    new ProjectFeedItem.PostedBy((String) r[11]),
+                    owner ? "OWNER" : "MEMBER",
+                    ((Number) r[13]).longValue(),
+                    ((Number) r[14]).longValue()
+            ));
+        }
+
+        List<ProjectDashboard.Item> projects = new ArrayList<>(byId.values());
+        int owned = (int) projects.stream().filter(i -> "OWNER".equals(i.role())).count();
+        return new ProjectDashboard(projects, owned, projects.size() - owned, incoming);
+    }
+
+    // native timestamptz columns come back as Instant, OffsetDateTime or Timestamp depending on the driver path
+    private static String timestampString(Object value) {
+        if (value == null) return null;
+        if (value instanceof Instant i) return i.toString();
+        if (value instanceof OffsetDateTime o) return o.toInstant().toString();
+        if (value instanceof Timestamp t) return t.toInstant().toString();
+        return value.toString();
+    }
+
+    @Transactional(readOnly = true)
     public List<ProjectData> listAllProjects() {
         return projectRepository.findAll();
     }
 
+    // Explore feed limited to the last N days, newest first
+    @Transactional(readOnly = true)
+    public List<ProjectData> listRecentProjects(int days) {
+        Instant since = Instant.now().minus(days, ChronoUnit.DAYS);
+        return projectRepository.findAllByCreatedAtGreaterThanEqualOrderByCreatedAtDesc(since);
+    }
+
+    // Stream every project through the consumer without materializing the table.
+    // Each row is detached once handled so the persistence context stays flat.
+    @Transactional(readOnly = true)
+    public void forEachProject(Consumer<ProjectData> consumer) {
+        try (Stream<ProjectData> rows = projectRepository.streamAllOrderById()) {
+            rows.forEach(p -> {
+                consumer.accept(p);
+                entityManager.detach(p);
+            });
+        }
+    }
+
+    // Recommended candidates for a project; only its owner may see them
+    public List<Map<String, Object>> listCandidatesForProject(Long projectId, int limit) {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        ProjectData project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        if (!auth.getName().equals(project.getEmail())) {
+            throw new RuntimeException("Only project owner can view candidates");
+        }
+        return recommendationService.topCandidates(projectId, limit);
+    }
+
     // NEW: fetch a single project by id (returns null if not found)
+    @Transactional(readOnly = true)
     public ProjectData getProjectById(Long id) {
         if (id == null) return null;
         return projectRepository.findById(id).orElse(null);
@@ -129,11 +252,20 @@ public class ProjectService {
 
         // Update status and save
         project.setStatus("COMPLETED");
+        project.setCompletedAt(Instant.now());
         ProjectData updatedProject = projectRepository.save(project);
 
         // Create rating notifications for all members
         projectTeamService.createRatingRequestsForProject(updatedProject);
 
+        // Completed projects stop recruiting
+        try (var t = ServerTiming.phase("recommend")) {
+            recommendationService.onProjectCompleted(projectId);
+        } catch (Exception e) {
+            System.out.println("Failed to drop recommendations for project " + projectId + ": " + e.getMessage());
+        }
+
+        exploreFeedSnapshot.requestRebuild();
         return updatedProject;
     }
 }
@@ -3,6 +3,7 @@ package sasvar.example.chatbot.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import sasvar.example.chatbot.Database.ProjectData;
 import sasvar.example.chatbot.Database.ProjectTeam;
 import sasvar.example.chatbot.Database.ProjectTeamRequest;
@@ -13,6 +14,7 @@ import sasvar.example.chatbot.Repository.JsonDataRepository;
 import sasvar.example.chatbot.Repository.ProjectTeamRequestRepository;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -40,6 +42,13 @@ public class ProjectTeamService {
         }
         String requesterEmail = auth.getName();
 
+        // single INSERT ... ON CONFLICT DO NOTHING carrying the owner/profile checks
+        ProjectTeam inserted = projectTeamRepository.insertIfOwner(projectId, requesterEmail, memberEmail, Instant.now());
+        if (inserted != null) {
+            return inserted;
+        }
+
+        // nothing inserted — find out which rule failed
         ProjectData project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
@@ -47,22 +56,14 @@ public class ProjectTeamService {
             throw new RuntimeException("Only project owner can add teammates");
         }
 
-        // prevent duplicates
-        if (projectTeamRepository.existsByProjectIdAndMemberEmail(projectId, memberEmail)) {
-            throw new RuntimeException("Member already added to project");
-        }
-
         // verify member exists (profile)
         Optional<JsonData> memberProfile = jsonDataRepository.findByEmail(memberEmail);
         if (memberProfile.isEmpty()) {
             throw new RuntimeException("Member profile not found");
         }
 
-        ProjectTeam pt = new ProjectTeam();
-        pt.setProjectId(projectId);
-        pt.setMemberEmail(memberEmail);
-        pt.setAddedAt(Instant.now().toString());
-        return projectTeamRepository.save(pt);
+        // only the unique (project_id, member_email) conflict is left
+        throw new RuntimeException("Member already added to project");
     }
 
     // Create a teammate request (owner initiates) — returns the saved request
@@ -73,6 +74,18 @@ public class ProjectTeamService {
         }
         String requesterEmail = auth.getName();
 
+        if (requesterEmail.equalsIgnoreCase(targetEmail)) {
+            throw new RuntimeException("Cannot send request to yourself");
+        }
+
+        // single INSERT ... SELECT with all checks; pending duplicates hit the partial unique index
+        ProjectTeamRequest inserted = projectTeamRequestRepository
+                .insertPendingJoinRequest(projectId, requesterEmail, targetEmail, Instant.now());
+        if (inserted != null) {
+            return inserted;
+        }
+
+        // nothing inserted — find out which rule failed
         ProjectData project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
@@ -80,10 +93,6 @@ public class ProjectTeamService {
             throw new RuntimeException("Only project owner can send teammate requests");
         }
 
-        if (requesterEmail.equalsIgnoreCase(targetEmail)) {
-            throw new RuntimeException("Cannot send request to yourself");
-        }
-
         // ensure candidate exists
         Optional<JsonData> candidate = jsonDataRepository.findByEmail(targetEmail);
         if (candidate.isEmpty()) {
@@ -95,27 +104,95 @@ public class ProjectTeamService {
             throw new RuntimeException("User already a teammate");
         }
 
-        // ensure no existing pending request
-        var existing = projectTeamRequestRepository.findByProjectIdAndTargetEmailAndStatus(projectId, targetEmail, "PENDING");
-        if (existing.isPresent()) {
-            return existing.get();
+        // an existing pending request absorbed the insert — return it
+        return projectTeamRequestRepository
+                .findByProjectIdAndTargetEmailAndStatus(projectId, targetEmail, "PENDING")
+                .orElseThrow(() -> new RuntimeException("Teammate request could not be created, please retry"));
+    }
+
+    public static final int MAX_BULK_INVITES = 100;
+
+    // Invite many users at once. Every email gets a result:
+    // CREATED | ALREADY_PENDING | ALREADY_TEAMMATE | PROFILE_NOT_FOUND | SELF | INVALID | DUPLICATE.
+    // Validation is three set lookups for the whole list, the inserts are one statement.
+    public List<Map<String, Object>> createTeammateRequests(Long projectId, List<String> targetEmails) {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        String requesterEmail = auth.getName();
+
+        if (targetEmails == null || targetEmails.isEmpty()) {
+            throw new IllegalArgumentException("At least one email required");
+        }
+        if (targetEmails.size() > MAX_BULK_INVITES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_INVITES + " emails per request");
+        }
+
+        ProjectData project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        if (!requesterEmail.equals(project.getEmail())) {
+            throw new RuntimeException("Only project owner can send teammate requests");
         }
 
-        ProjectTeamRequest req = new ProjectTeamRequest();
-        req.setProjectId(projectId);
-        req.setRequesterEmail(requesterEmail);
-        req.setTargetEmail(targetEmail);
-        req.setStatus("PENDING");
-        req.setCreatedAt(Instant.now().toString());
-        req.setUpdatedAt(Instant.now().toString());
-        // NEW: Set project title and type for join requests
-        req.setProjectTitle(project.getTitle());
-        req.setType("JOIN_REQUEST");
-
-        return projectTeamRequestRepository.save(req);
+        // results keep the caller's order; status is filled in below
+        Map<String, String> status = new LinkedHashMap<>();
+        List<Map<String, Object>> results = new ArrayList<>(targetEmails.size());
+        for (String raw : targetEmails) {
+            String email = raw == null ? "" : raw.trim();
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("email", email);
+            if (email.isEmpty() || !email.contains("@")) {
+                r.put("status", "INVALID");
+            } else if (requesterEmail.equalsIgnoreCase(email)) {
+                r.put("status", "SELF");
+            } else if (status.containsKey(email)) {
+                r.put("status", "DUPLICATE");
+            } else {
+                status.put(email, null);
+            }
+            results.add(r);
+        }
+
+        Set<String> candidates = status.keySet();
+        if (!candidates.isEmpty()) {
+            Set<String> withProfile = new HashSet<>(jsonDataRepository.findEmailsByEmailIn(candidates));
+            Set<String> teammates = new HashSet<>(projectTeamRepository.findMemberEmailsIn(projectId, candidates));
+            Set<String> pending = new HashSet<>(projectTeamRequestRepository.findPendingJoinTargetsIn(projectId, candidates));
+
+            List<String> toInsert = new ArrayList<>();
+            for (String email : candidates) {
+                if (!withProfile.contains(email)) status.put(email, "PROFILE_NOT_FOUND");
+                else if (teammates.contains(email)) status.put(email, "ALREADY_TEAMMATE");
+                else if (pending.contains(email)) status.put(email, "ALREADY_PENDING");
+                else toInsert.add(email);
+            }
+
+            Map<String, Long> created = new HashMap<>();
+            if (!toInsert.isEmpty()) {
+                List<Object[]> rows = projectTeamRequestRepository.insertPendingJoinRequests(
+                        projectId, requesterEmail, toInsert.toArray(new String[0]), Instant.now());
+                for (Object[] row : rows) {
+                    created.put((String) row[1], ((Number) row[0]).longValue());
+                }
+            }
+            // anything validated but not inserted lost a race with a concurrent invite
+            for (String email : toInsert) {
+                status.put(email, created.containsKey(email) ? "CREATED" : "ALREADY_PENDING");
+            }
+
+            for (Map<String, Object> r : results) {
+                if (r.containsKey("status")) continue;
+                String email = (String) r.get("email");
+                r.put("status", status.get(email));
+                if (created.containsKey(email)) r.put("requestId", created.get(email));
+            }
+        }
+        return results;
     }
 
-    // Target user accepts a pending request — creates ProjectTeam row and deletes the request
+    // Target user accepts a pending request — creates ProjectTeam row and deletes the request.
+    // Happy path is one statement (DELETE ... RETURNING feeding INSERT ... ON CONFLICT DO NOTHING).
     public ProjectTeam acceptTeammateRequest(Long requestId) {
         var auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || auth.getName() == null) {
@@ -123,6 +200,23 @@ public class ProjectTeamService {
         }
         String actorEmail = auth.getName();
 
+        Instant addedAt = Instant.now();
+        List<Object[]> rows = projectTeamRequestRepository.acceptPending(requestId, actorEmail, addedAt);
+        if (!rows.isEmpty()) {
+            Object[] row = rows.get(0);
+            if (row[2] == null) {
+                // request consumed, membership already existed
+                throw new RuntimeException("User already a teammate");
+            }
+            ProjectTeam pt = new ProjectTeam();
+            pt.setId(((Number) row[2]).longValue());
+            pt.setProjectId(((Number) row[0]).longValue());
+            pt.setMemberEmail((String) row[1]);
+            pt.setAddedAt(addedAt);
+            return pt;
+        }
+
+        // nothing matched — find out why
         ProjectTeamRequest req = projectTeamRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
 
@@ -131,31 +225,11 @@ public class ProjectTeamService {
             projectTeamRequestRepository.delete(req);
             throw new RuntimeException("Request is not pending");
         }
-
-        if (!actorEmail.equalsIgnoreCase(req.getTargetEmail())) {
-            throw new RuntimeException("Only the requested user can accept this request");
+        if (!"JOIN_REQUEST".equals(req.getType())) {
+            throw new RuntimeException("Only join requests can be accepted");
         }
 
-        Long projectId = req.getProjectId();
-
-        // ensure not already teammate
-        if (projectTeamRepository.existsByProjectIdAndMemberEmail(projectId, req.getTargetEmail())) {
-            // delete request so it won't appear again, then inform caller
-            projectTeamRequestRepository.delete(req);
-            throw new RuntimeException("User already a teammate");
-        }
-
-        // create teammate row (owner is request.requesterEmail)
-        ProjectTeam pt = new ProjectTeam();
-        pt.setProjectId(projectId);
-        pt.setMemberEmail(req.getTargetEmail());
-        pt.setAddedAt(Instant.now().toString());
-        ProjectTeam saved = projectTeamRepository.save(pt);
-
-        // delete the request entry now that it has been accepted
-        projectTeamRequestRepository.delete(req);
-
-        return saved;
+        throw new RuntimeException("Only the requested user can accept this request");
     }
 
     // New: target user rejects a pending request — deletes the request
@@ -184,6 +258,7 @@ public class ProjectTeamService {
     }
 
     // List incoming requests for a user (target)
+    @Transactional(readOnly = true)
     public List<ProjectTeamRequest> listIncomingRequestsForCurrentUser() {
         var auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || auth.getName() == null) {
@@ -193,6 +268,19 @@ public class ProjectTeamService {
         return projectTeamRequestRepository.findAllByTargetEmail(email);
     }
 
+    // Incoming requests from the last N days, newest first
+    @Transactional(readOnly = true)
+    public List<ProjectTeamRequest> listRecentIncomingRequestsForCurrentUser(int days) {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        String email = auth.getName();
+        Instant since = Instant.now().minus(days, ChronoUnit.DAYS);
+        return projectTeamRequestRepository
+                .findAllByTargetEmailAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(email, since);
+    }
+
     // NEW: Create rating requests for all members of a completed project
     public void createRatingRequestsForProject(ProjectData project) {
         if (!"COMPLETED".equals(project.getStatus())) {
@@ -224,8 +312,8 @@ public class ProjectTeamService {
                     ratingRequest.setType("RATING_REQUEST");
                     ratingRequest.setRateeEmail(rateeProfile.getEmail()); // The user to be rated
                     ratingRequest.setRateeName(rateeProfile.getName()); // Name of the user to be rated
-                    ratingRequest.setCreatedAt(Instant.now().toString());
-                    ratingRequest.setUpdatedAt(Instant.now().toString());
+                    ratingRequest.setCreatedAt(Instant.now());
+                    ratingRequest.setUpdatedAt(Instant.now());
 
                     projectTeamRequestRepository.save(ratingRequest);
                 }
@@ -234,6 +322,7 @@ public class ProjectTeamService {
     }
 
     // List teammates with basic profile fields
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> listTeammatesForProject(Long projectId) {
         List<ProjectTeam> rows = projectTeamRepository.findAllByProjectId(projectId);
         if (rows == null || rows.isEmpty()) return List.of();
@@ -0,0 +1,88 @@
+package sasvar.example.chatbot.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sasvar.example.chatbot.Database.ProjectTeamRequest;
+import sasvar.example.chatbot.Database.UserReputation;
+import sasvar.example.chatbot.Repository.ProjectTeamRequestRepository;
+import sasvar.example.chatbot.Repository.RatingRepository;
+import sasvar.example.chatbot.Repository.UserReputationRepository;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class RatingService {
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private UserReputationRepository userReputationRepository;
+
+    @Autowired
+    private ProjectTeamRequestRepository projectTeamRequestRepository;
+
+    // Current user answers one of their RATING_REQUESTs with a 1-5 score.
+    // Returns the ratee's updated reputation.
+    public Map<String, Object> submitRating(Long requestId, int score, String comment) {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        String email = auth.getName();
+
+        if (score < 1 || score > 5) {
+            throw new IllegalArgumentException("Score must be between 1 and 5");
+        }
+        if (comment != null && comment.isBlank()) comment = null;
+
+        List<Object[]> rows = ratingRepository.submitForRequest(requestId, email, score, comment, Instant.now());
+        if (!rows.isEmpty()) {
+            Object[] r = rows.get(0);
+            return toMap(new UserReputation((String) r[0],
+                    ((Number) r[1]).longValue(),
+                    ((Number) r[2]).longValue(),
+                    ((Number) r[3]).longValue(),
+                    null));
+        }
+
+        // nothing changed — work out why for the caller (the fast path already consumed a duplicate)
+        ProjectTeamRequest req = projectTeamRequestRepository.findById(requestId).orElse(null);
+        if (req == null) {
+            throw new RuntimeException("Rating request not found or already answered");
+        }
+        if (!"RATING_REQUEST".equals(req.getType())) {
+            throw new RuntimeException("Not a rating request");
+        }
+        if (!email.equalsIgnoreCase(req.getTargetEmail())) {
+            throw new RuntimeException("Not authorized to answer this rating request");
+        }
+        throw new RuntimeException("Rating request is not pending");
+    }
+
+    // Aggregated reputation for a user; count 0 when nobody has rated them yet
+    @Transactional(readOnly = true)
+    public Map<String, Object> getReputation(String email) {
+        if (email == null) return toMap(null);
+        return toMap(userReputationRepository.findById(email).orElse(null));
+    }
+
+    private static Map<String, Object> toMap(UserReputation rep) {
+        Map<String, Object> m = new HashMap<>();
+        if (rep == null || rep.getRatingCount() == 0) {
+            m.put("ratingCount", 0L);
+            m.put("averageRating", null);
+            m.put("ratingStdDev", null);
+            return m;
+        }
+        m.put("ratingCount", rep.getRatingCount());
+        m.put("averageRating", Math.round(rep.average() * 100) / 100.0);
+        m.put("ratingStdDev", Math.round(Math.sqrt(rep.variance()) * 100) / 100.0);
+        return m;
+    }
+}
@@ -0,0 +1,321 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import sasvar.example.chatbot.Utils.SkillDictionary;
+import sasvar.example.chatbot.Utils.SkillMatchScorer;
+
+import java.util.*;
+
+// Keeps project_candidate (top K resumes per ACTIVE project) up to date as resumes and
+// projects change, so reading recommendations is a single index range scan.
+// Changes are applied per resume / per project; nothing is ever recomputed globally.
+// Each project's list is changed under that project's advisory lock (taken in id order), so
+// updates to different projects run in parallel. project_candidate_list keeps every list's
+// size and K-th score, so a resume save never aggregates project_candidate.
+@Service
+public class RecommendationService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO project_candidate (project_id, profile_id, score, updated_at)
+            VALUES (?, ?, ?, now())
+            ON CONFLICT (project_id, profile_id) DO UPDATE SET score = EXCLUDED.score, updated_at = now()
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Value("${recommend.top-k:20}")
+    private int topK;
+
+    private record ActiveProject(long id, String ownerEmail, SkillMatchScorer scorer) {
+    }
+
+    private record ListStats(int size, double floor) {
+    }
+
+    private record Scored(long profileId, double score) {
+    }
+
+    // A resume was created or re-parsed: re-score it against every active project
+    @Transactional
+    public void onResumeSaved(Long profileId) {
+        if (profileId == null) return;
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT email, skill_tags::text AS skills FROM resume WHERE id = ?", profileId);
+        if (rows.isEmpty()) return;
+        String email = (String) rows.get(0).get("email");
+        Set<String> skills = parseSkills((String) rows.get(0).get("skills"));
+
+        // score first without locks; only the lists this resume is on or may enter get locked
+        Map<Long, Double> listed = listedScores(profileId);
+        Map<Long, Double> scores = new TreeMap<>();
+        for (ActiveProject p : activeProjects(null)) {
+            double score = email.equalsIgnoreCase(p.ownerEmail()) ? 0 : p.scorer().score(skills);
+            if (listed.containsKey(p.id()) || score > 0) scores.put(p.id(), score);
+        }
+        if (scores.isEmpty()) return;
+
+        Map<Long, ListStats> stats = listStats(scores.keySet());
+        List<Long> affected = new ArrayList<>();
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            ListStats st = stats.get(e.getKey());
+            if (listed.containsKey(e.getKey()) || st == null || st.size() < topK || e.getValue() > st.floor()) {
+                affected.add(e.getKey());
+            }
+        }
+        if (affected.isEmpty()) return;
+
+        // re-read under the locks: another save may have changed these lists meanwhile
+        lock(affected);
+        listed = listedScores(profileId);
+        stats = listStats(affected);
+
+        List<Object[]> upserts = new ArrayList<>();
+        Set<Long> changed = new TreeSet<>();
+        List<Long> rebuild = new ArrayList<>();
+        for (Long projectId : affected) {
+            double score = scores.get(projectId);
+            Double old = listed.get(projectId);
+            ListStats st = stats.get(projectId);
+            if (old != null) {
+                if (score >= old) {
+                    upserts.add(new Object[]{projectId, profileId, score});
+                    changed.add(projectId);
+                } else {
+                    // dropped: a resume outside the list may now beat it
+                    rebuild.add(projectId);
+                }
+            } else if (score > 0 && (st == null || st.size() < topK || score > st.floor())) {
+                upserts.add(new Object[]{projectId, profileId, score});
+                changed.add(projectId);
+            }
+        }
+
+        if (!upserts.isEmpty()) jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+        for (Long projectId : changed) {
+            trimToTopK(projectId);
+            refreshListStats(projectId);
+        }
+        for (Long projectId : rebuild) rebuildProject(projectId);
+    }
+
+    // A resume was removed: take it off every list and refill those lists
+    @Transactional
+    public void onResumeDeleted(Long profileId) {
+        if (profileId == null) return;
+        List<Long> projects = new ArrayList<>(listedScores(profileId).keySet());
+        if (projects.isEmpty()) return;
+        lock(projects);
+        jdbcTemplate.update("DELETE FROM project_candidate WHERE profile_id = ?", profileId);
+        for (Long projectId : projects) rebuildProject(projectId);
+    }
+
+    @Transactional
+    public void onProjectCreated(Long projectId) {
+        if (projectId == null) return;
+        lock(List.of(projectId));
+        rebuildProject(projectId);
+    }
+
+    // Completed projects no longer recruit
+    @Transactional
+    public void onProjectCompleted(Long projectId) {
+        if (projectId == null) return;
+        lock(List.of(projectId));
+        jdbcTemplate.update("DELETE FROM project_candidate WHERE project_id = ?", projectId);
+        jdbcTemplate.update("DELETE FROM project_candidate_list WHERE project_id = ?", projectId);
+    }
+
+    // Top candidates for a project, best first, with summary profile fields
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> topCandidates(Long projectId, int limit) {
+        int n = Math.max(1, Math.min(limit, topK));
+        return jdbcTemplate.query("""
+                SELECT c.profile_id, c.score, r.email, r.name, r.year, r.department, r.institution, r.availability
+                  FROM project_candidate c
+                  JOIN resume r ON r.id = c.profile_id
+                 WHERE c.project_id = ?
+                 ORDER BY c.score DESC, c.profile_id
+                 LIMIT ?
+                """, (rs, i) -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("profileId", rs.getLong("profile_id"));
+            m.put("score", Math.round(rs.getDouble("score") * 1000) / 1000.0);
+            m.put("email", rs.getString("email"));
+            m.put("name", rs.getString("name"));
+            m.put("year", rs.getString("year"));
+            m.put("department", rs.getString("department"));
+            m.put("institution", rs.getString("institution"));
+            m.put("availability", rs.getString("availability"));
+            return m;
+        }, projectId, n);
+    }
+
+    // One-off fill for active projects whose list was never built (e.g. created before this table
+    // existed, or by the admin import); an empty list is recorded too, so it is built only once
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingLists() {
+        try {
+            List<Long> missing = jdbcTemplate.queryForList("""
+                    SELECT p.id FROM projects p
+                     WHERE p.status = 'ACTIVE'
+                       AND NOT EXISTS (SELECT 1 FROM project_candidate_list l WHERE l.project_id = p.id)
+                    """, Long.class);
+            for (Long projectId : missing) {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    lock(List.of(projectId));
+                    rebuildProject(projectId);
+                });
+            }
+            if (!missing.isEmpty()) {
+                System.out.println("Recommendation lists built for " + missing.size() + " projects");
+            }
+        } catch (Exception e) {
+            System.out.println("Recommendation backfill skipped: " + e.getMessage());
+        }
+    }
+
+    // Recompute one project's list from the resumes sharing at least one of its terms
+    // (caller holds the project's lock)
+    private void rebuildProject(Long projectId) {
+        jdbcTemplate.update("DELETE FROM project_candidate WHERE project_id = ?", projectId);
+        List<ActiveProject> found = activeProjects(projectId);
+        if (found.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM project_candidate_list WHERE project_id = ?", projectId);
+            return;
+        }
+        ActiveProject p = found.get(0);
+        Set<String> terms = p.scorer().allTerms();
+        if (terms.isEmpty()) {
+            refreshListStats(projectId);
+            return;
+        }
+
+        // each term is one GIN probe on ix_resume_skill_tags
+        StringBuilder sql = new StringBuilder("SELECT id, email, skill_tags::text FROM resume WHERE ");
+        List<Object> args = new ArrayList<>();
+        for (String term : terms) {
+            if (!args.isEmpty()) sql.append(" OR ");
+            sql.append("skill_tags @> ?::jsonb");
+            args.add(toJson(List.of(term)));
+        }
+
+        PriorityQueue<Scored> best = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+        jdbcTemplate.query(sql.toString(), rs -> {
+            if (rs.getString(2).equalsIgnoreCase(p.ownerEmail())) return;
+            double score = p.scorer().score(parseSkills(rs.getString(3)));
+            if (score <= 0) return;
+            if (best.size() < topK) {
+                best.add(new Scored(rs.getLong(1), score));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(new Scored(rs.getLong(1), score));
+            }
+        }, args.toArray());
+
+        List<Object[]> rows = new ArrayList<>(best.size());
+        for (Scored s : best) rows.add(new Object[]{projectId, s.profileId(), s.score()});
+        if (!rows.isEmpty()) jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        refreshListStats(projectId);
+    }
+
+    // size and K-th score of one list; a row with size 0 means "built, empty"
+    private void refreshListStats(Long projectId) {
+        jdbcTemplate.update("""
+                INSERT INTO project_candidate_list (project_id, list_size, floor_score, updated_at)
+                SELECT ?, count(*), min(score), now() FROM project_candidate WHERE project_id = ?
+                ON CONFLICT (project_id) DO UPDATE
+                   SET list_size = EXCLUDED.list_size, floor_score = EXCLUDED.floor_score, updated_at = now()
+                """, projectId, projectId);
+    }
+
+    private Map<Long, Double> listedScores(Long profileId) {
+        Map<Long, Double> listed = new HashMap<>();
+        jdbcTemplate.query("SELECT project_id, score FROM project_candidate WHERE profile_id = ?",
+                rs -> { listed.put(rs.getLong(1), rs.getDouble(2)); }, profileId);
+        return listed;
+    }
+
+    private Map<Long, ListStats> listStats(Collection<Long> projectIds) {
+        Map<Long, ListStats> stats = new HashMap<>();
+        jdbcTemplate.query("SELECT project_id, list_size, floor_score FROM project_candidate_list WHERE project_id = ANY(?)",
+                rs -> { stats.put(rs.getLong(1), new ListStats(rs.getInt(2), rs.getDouble(3))); },
+                (Object) projectIds.toArray(new Long[0]));
+        return stats;
+    }
+
+    private void trimToTopK(Long projectId) {
+        jdbcTemplate.update("""
+                DELETE FROM project_candidate
+                 WHERE project_id = ?
+                   AND profile_id NOT IN (SELECT profile_id FROM project_candidate
+                                           WHERE project_id = ?
+                                           ORDER BY score DESC, profile_id
+                                           LIMIT ?)
+                """, projectId, projectId, topK);
+    }
+
+    // all active projects, or just the given one if it is active
+    private List<ActiveProject> activeProjects(Long onlyId) {
+        String sql = "SELECT id, email, required_skills, preferred_technologies, domain FROM projects WHERE status = 'ACTIVE'";
+        Object[] args = {};
+        if (onlyId != null) {
+            sql += " AND id = ?";
+            args = new Object[]{onlyId};
+        }
+        return jdbcTemplate.query(sql, (rs, i) -> new ActiveProject(
+                rs.getLong("id"),
+                rs.getString("email"),
+                new SkillMatchScorer(skillDictionary,
+                        rs.getString("required_skills"),
+                        rs.getString("preferred_technologies"),
+                        rs.getString("domain"))
+        ), args);
+    }
+
+    // per-project transaction locks, always taken in ascending id order so lockers cannot deadlock
+    private void lock(Collection<Long> projectIds) {
+        for (Long projectId : new TreeSet<>(projectIds)) {
+            jdbcTemplate.queryForObject(
+                    "SELECT pg_advisory_xact_lock(hashtext('project_candidate'), (?::bigint % 2147483647)::int)",
+                    Object.class, projectId);
+        }
+    }
+
+    // skill_tags in canonical form, for SkillMatchScorer
+    private Set<String> parseSkills(String json) {
+        if (json == null) return Set.of();
+        try {
+            Set<String> skills = new HashSet<>();
+            for (String s : MAPPER.readValue(json, String[].class)) skills.add(skillDictionary.canonicalize(s));
+            return skills;
+        } catch (Exception e) {
+            return Set.of();
+        }
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode skill term", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package sasvar.example.chatbot.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import sasvar.example.chatbot.Repository.UserReputationRepository;
+
+// Nightly safety net for the in-place reputation aggregates: recomputes them from the
+// rating table and corrects any drift (manual edits, deleted ratings, partial restores).
+@Service
+public class ReputationReconcileJob {
+
+    @Autowired
+    private UserReputationRepository userReputationRepository;
+
+    @Scheduled(cron = "${reputation.reconcile.cron:0 30 3 * * *}")
+    public void reconcile() {
+        try {
+            int fixed = userReputationRepository.reconcileFromRatings();
+            int removed = userReputationRepository.deleteWithoutRatings();
+            if (fixed > 0 || removed > 0) {
+                System.out.println("Reputation reconcile: corrected " + fixed + ", removed " + removed);
+            }
+        } catch (Exception e) {
+            System.out.println("Reputation reconcile failed: " + e.getMessage());
+        }
+    }
+}
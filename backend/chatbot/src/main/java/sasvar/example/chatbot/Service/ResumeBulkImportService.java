@@ -0,0 +1,626 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sasvar.example.chatbot.Database.JsonData;
+import sasvar.example.chatbot.Exception.GeminiUnavailableException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Admin bulk resume ingestion (zip of PDFs/texts or NDJSON).
+// The upload is only staged (resume_import_item, see V9__resume_import) so the request returns
+// quickly; a few workers then claim chunks of items, extract text, parse several resumes per
+// Gemini request and save each chunk in one transaction, which is also the checkpoint;
+// recommendations are refreshed after that transaction commits. When Gemini stays unavailable
+// the run is PAUSED and can be resumed later.
+@Service
+public class ResumeBulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String MANIFEST = "manifest.ndjson";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO resume_import_item
+                   (run_id, source, email, name, year, department, institution, availability, overwrite,
+                    resume_text, resume_pdf)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // stale CLAIMED items belong to a worker that died; they are claimed again after the timeout
+    private static final String CLAIM_SQL = """
+            UPDATE resume_import_item i SET status = 'CLAIMED', claimed_at = now()
+              FROM (SELECT id FROM resume_import_item
+                     WHERE run_id = ?
+                       AND (status = 'PENDING' OR (status = 'CLAIMED' AND claimed_at < ?))
+                     ORDER BY id
+                     LIMIT ?
+                     FOR UPDATE SKIP LOCKED) batch
+             WHERE i.id = batch.id
+            RETURNING i.id, i.source, i.email, i.name, i.year, i.department, i.institution, i.availability,
+                      i.overwrite, i.resume_text, i.resume_pdf
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChatBotService chatBotService;
+
+    @Autowired
+    private PdfTextExtractor pdfTextExtractor;
+
+    @Autowired
+    private ResumeHeuristicExtractor resumeHeuristicExtractor;
+
+    @Value("${resume.import.parallelism:2}")
+    private int parallelism;
+
+    @Value("${resume.import.chunk-size:8}")
+    private int chunkSize;
+
+    @Value("${resume.import.gemini-batch-size:4}")
+    private int geminiBatchSize;
+
+    @Value("${resume.import.max-items:5000}")
+    private int maxItems;
+
+    @Value("${resume.import.claim-timeout-ms:600000}")
+    private long claimTimeoutMs;
+
+    @Value("${resume.import.max-gemini-retries:5}")
+    private int maxGeminiRetries;
+
+    @Value("${resume.pdf.max-bytes:10485760}")
+    private long maxPdfBytes;
+
+    private ExecutorService pool;
+    private final Map<Long, AtomicInteger> activeRuns = new ConcurrentHashMap<>();
+
+    public record StageReport(long runId, int staged, int rejected, List<String> errors) {
+    }
+
+    private record Item(long id, String source, String email, String name, String year, String department,
+                        String institution, String availability, boolean overwrite, String text, byte[] pdf) {
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger n = new AtomicInteger();
+        pool = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "resume-import-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // in-flight chunks roll back; their claims expire and are picked up on the next start
+        pool.shutdownNow();
+    }
+
+    // ---- staging ----
+
+    // One resume per line: email, resumeText and/or resumePdf (base64), plus optional
+    // name, year, department, institution, availability, and overwrite (true to replace an
+    // existing profile with the same email; otherwise such a line fails).
+    public StageReport stageNdjson(InputStream in, String createdBy) throws IOException {
+        long runId = createRun(createdBy);
+        Stager stager = new Stager(runId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            String source = "line " + lineNo;
+            try {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> body = MAPPER.readValue(line, Map.class);
+                String text = str(body, "resumeText", "resume_text");
+                String pdfBase64 = str(body, "resumePdf", "resume_pdf");
+                byte[] pdf = pdfBase64 == null ? null : Base64.getDecoder().decode(pdfBase64);
+                if (text == null && pdf == null) {
+                    stager.reject(source, "resumeText or resumePdf is required");
+                    continue;
+                }
+                if (pdf != null && pdf.length > maxPdfBytes) {
+                    stager.reject(source, "resumePdf is larger than " + maxPdfBytes + " bytes");
+                    continue;
+                }
+                stager.add(source, body, text, pdf);
+            } catch (IllegalArgumentException e) {
+                stager.reject(source, "resumePdf is not valid base64");
+            } catch (Exception e) {
+                stager.reject(source, "not a JSON object (" + e.getClass().getSimpleName() + ")");
+            }
+        }
+        return stager.finish();
+    }
+
+    // Zip of *.pdf / *.txt resumes. An optional manifest.ndjson maps "file" to email, the
+    // other profile fields and overwrite; without it the email is taken from the resume text.
+    public StageReport stageZip(InputStream in, String createdBy) throws IOException {
+        long runId = createRun(createdBy);
+        Stager stager = new Stager(runId);
+        List<Map<String, Object>> manifest = new ArrayList<>();
+
+        try (ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                String base = name.substring(name.lastIndexOf('/') + 1);
+                if (entry.isDirectory() || name.startsWith("__MACOSX/") || base.startsWith(".")) continue;
+
+                String lower = base.toLowerCase(Locale.ROOT);
+                byte[] data = readCapped(zip, maxPdfBytes);
+                if (data == null) {
+                    stager.reject(name, "larger than " + maxPdfBytes + " bytes");
+                } else if (lower.equals(MANIFEST)) {
+                    for (String line : new String(data, StandardCharsets.UTF_8).split("\\R")) {
+                        if (line.isBlank()) continue;
+                        try {
+                            @SuppressWarnings("unchecked")
+                            Map<String, Object> m = MAPPER.readValue(line, Map.class);
+                            manifest.add(m);
+                        } catch (Exception e) {
+                            stager.reject(MANIFEST, "bad line: " + abbreviate(line));
+                        }
+                    }
+                } else if (lower.endsWith(".pdf")) {
+                    stager.add(name, Map.of(), null, data);
+                } else if (lower.endsWith(".txt")) {
+                    stager.add(name, Map.of(), new String(data, StandardCharsets.UTF_8), null);
+                } else {
+                    stager.reject(name, "only .pdf and .txt resumes are accepted");
+                }
+            }
+        }
+        stager.flush();
+
+        for (Map<String, Object> m : manifest) {
+            String file = str(m, "file");
+            int updated = file == null ? 0 : jdbcTemplate.update("""
+                    UPDATE resume_import_item
+                       SET email = COALESCE(?, email), name = ?, year = ?, department = ?,
+                           institution = ?, availability = ?, overwrite = ?
+                     WHERE run_id = ? AND (source = ? OR source LIKE ?)
+                    """, str(m, "email"), str(m, "name"), str(m, "year"), str(m, "department"),
+                    str(m, "institution"), str(m, "availability"), overwrite(m), runId, file, "%/" + file);
+            if (updated == 0) stager.reject(MANIFEST, "no resume named " + file);
+        }
+        return stager.finish();
+    }
+
+    // batches inserts; marks the run RUNNING and starts the workers once everything is staged
+    private final class Stager {
+        final long runId;
+        final List<Object[]> batch = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        int staged;
+        int rejected;
+
+        Stager(long runId) {
+            this.runId = runId;
+        }
+
+        void add(String source, Map<String, Object> f, String text, byte[] pdf) {
+            if (staged >= maxItems) {
+                reject(source, "run is limited to " + maxItems + " resumes");
+                return;
+            }
+            batch.add(new Object[]{runId, abbreviate(source), str(f, "email"), str(f, "name"), str(f, "year"),
+                    str(f, "department"), str(f, "institution"), str(f, "availability"), overwrite(f), text, pdf});
+            staged++;
+            // PDFs make rows large; keep each round trip small
+            if (batch.size() >= 50) flush();
+        }
+
+        void reject(String source, String problem) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(source + ": " + problem);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, batch);
+            batch.clear();
+        }
+
+        StageReport finish() {
+            flush();
+            jdbcTemplate.update("UPDATE resume_import_run SET total = ?, status = 'RUNNING', started_at = now() WHERE id = ?",
+                    staged, runId);
+            System.out.println("Resume import " + runId + ": " + staged + " staged, " + rejected + " rejected");
+            startWorkers(runId);
+            return new StageReport(runId, staged, rejected, errors);
+        }
+    }
+
+    private long createRun(String createdBy) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO resume_import_run (created_by, status) VALUES (?, 'PAUSED') RETURNING id",
+                Long.class, createdBy);
+    }
+
+    // ---- progress / control ----
+
+    // Run status with per-status item counts, throughput and the first failures; null when unknown
+    public Map<String, Object> report(long runId) {
+        List<Map<String, Object>> runs = jdbcTemplate.queryForList("SELECT * FROM resume_import_run WHERE id = ?", runId);
+        if (runs.isEmpty()) return null;
+        Map<String, Object> run = runs.get(0);
+
+        Map<String, Long> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT status, count(*) FROM resume_import_item WHERE run_id = ? GROUP BY status",
+                rs -> { counts.put(rs.getString(1), rs.getLong(2)); }, runId);
+        List<String> failures = jdbcTemplate.query("""
+                SELECT source, error FROM resume_import_item
+                 WHERE run_id = ? AND status = 'FAILED'
+                 ORDER BY id LIMIT ?
+                """, (rs, i) -> rs.getString(1) + ": " + rs.getString(2), runId, MAX_REPORTED_ERRORS);
+
+        long succeeded = ((Number) run.get("succeeded")).longValue();
+        long failed = ((Number) run.get("failed")).longValue();
+        long geminiCalls = ((Number) run.get("gemini_calls")).longValue();
+        Instant started = instant(run.get("started_at"));
+        Instant finished = instant(run.get("finished_at"));
+        long elapsedMs = started == null ? 0
+                : Math.max(1, Duration.between(started, finished == null ? Instant.now() : finished).toMillis());
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("runId", runId);
+        m.put("status", run.get("status"));
+        m.put("createdBy", run.get("created_by"));
+        m.put("total", run.get("total"));
+        m.put("succeeded", succeeded);
+        m.put("failed", failed);
+        m.put("items", counts);
+        m.put("geminiCalls", geminiCalls);
+        m.put("resumesPerGeminiCall", geminiCalls == 0 ? 0 : Math.round((succeeded + failed) * 10.0 / geminiCalls) / 10.0);
+        m.put("elapsedMs", elapsedMs);
+        m.put("resumesPerSecond", elapsedMs == 0 ? 0 : Math.round(succeeded * 10_000.0 / elapsedMs) / 10.0);
+        m.put("lastError", run.get("last_error"));
+        m.put("failures", failures);
+        return m;
+    }
+
+    // Continue a paused or interrupted run; retryFailed also re-queues the FAILED items.
+    // Returns false when the run does not exist.
+    public boolean resume(long runId, boolean retryFailed) {
+        Boolean found = transactionTemplate.execute(tx -> {
+            List<String> status = jdbcTemplate.queryForList(
+                    "SELECT status FROM resume_import_run WHERE id = ? FOR UPDATE", String.class, runId);
+            if (status.isEmpty()) return false;
+            int requeued = retryFailed ? jdbcTemplate.update("""
+                    UPDATE resume_import_item SET status = 'PENDING', error = NULL
+                     WHERE run_id = ? AND status = 'FAILED'
+                    """, runId) : 0;
+            jdbcTemplate.update("""
+                    UPDATE resume_import_run
+                       SET status = 'RUNNING', failed = failed - ?, last_error = NULL, finished_at = NULL,
+                           started_at = COALESCE(started_at, now())
+                     WHERE id = ?
+                    """, requeued, runId);
+            return true;
+        });
+        if (Boolean.TRUE.equals(found)) startWorkers(runId);
+        return Boolean.TRUE.equals(found);
+    }
+
+    // Runs still RUNNING belonged to a stopped instance: pick them up again
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        try {
+            List<Long> running = jdbcTemplate.queryForList(
+                    "SELECT id FROM resume_import_run WHERE status = 'RUNNING'", Long.class);
+            for (Long runId : running) startWorkers(runId);
+            if (!running.isEmpty()) System.out.println("Resumed resume imports " + running);
+        } catch (Exception e) {
+            System.out.println("Resume import recovery skipped: " + e.getMessage());
+        }
+    }
+
+    // ---- workers ----
+
+    private void startWorkers(long runId) {
+        AtomicInteger workers = new AtomicInteger();
+        if (activeRuns.putIfAbsent(runId, workers) != null) return; // already being worked on here
+        workers.set(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            pool.execute(() -> {
+                try {
+                    work(runId);
+                } catch (Exception e) {
+                    System.out.println("Resume import " + runId + " worker stopped: " + e.getMessage());
+                } finally {
+                    if (workers.decrementAndGet() == 0) {
+                        activeRuns.remove(runId);
+                        finishIfDone(runId);
+                    }
+                }
+            });
+        }
+    }
+
+    private void work(long runId) throws InterruptedException {
+        int unavailable = 0;
+        while (isRunning(runId)) {
+            List<Item> items = claim(runId);
+            if (items.isEmpty()) return;
+            try {
+                processChunk(runId, items);
+                unavailable = 0;
+            } catch (GeminiUnavailableException e) {
+                // processChunk has saved what was parsed and put the rest back to PENDING
+                if (++unavailable > maxGeminiRetries) {
+                    jdbcTemplate.update("UPDATE resume_import_run SET status = 'PAUSED', last_error = ? WHERE id = ?",
+                            "Gemini unavailable: " + e.getMessage(), runId);
+                    System.out.println("Resume import " + runId + " paused: Gemini unavailable");
+                    return;
+                }
+                Thread.sleep(TimeUnit.SECONDS.toMillis(Math.max(1, e.getRetryAfterSeconds()) * unavailable));
+            }
+        }
+    }
+
+    private List<Item> claim(long runId) {
+        Timestamp staleBefore = Timestamp.from(Instant.now().minusMillis(claimTimeoutMs));
+        return jdbcTemplate.query(CLAIM_SQL, (rs, i) -> new Item(
+                rs.getLong("id"),
+                rs.getString("source"),
+                rs.getString("email"),
+                rs.getString("name"),
+                rs.getString("year"),
+                rs.getString("department"),
+                rs.getString("institution"),
+                rs.getString("availability"),
+                rs.getBoolean("overwrite"),
+                rs.getString("resume_text"),
+                rs.getBytes("resume_pdf")
+        ), runId, staleBefore, chunkSize);
+    }
+
+    private void release(List<Item> items) {
+        Long[] ids = items.stream().map(Item::id).toArray(Long[]::new);
+        jdbcTemplate.update("UPDATE resume_import_item SET status = 'PENDING', claimed_at = NULL WHERE id = ANY(?)",
+                (Object) ids);
+    }
+
+    // text + email -> Gemini (batched) -> one transaction for the whole chunk.
+    // If Gemini becomes unavailable part-way, what was already parsed is still saved and counted,
+    // only the unparsed items are released, and the GeminiUnavailableException is rethrown.
+    private void processChunk(long runId, List<Item> items) {
+        Map<Long, String> failures = new LinkedHashMap<>();
+        List<Item> ready = new ArrayList<>();
+        Map<Long, String> texts = new HashMap<>();
+        Map<Long, String> emails = new HashMap<>();
+
+        for (Item item : items) {
+            try {
+                String text = item.text() != null ? item.text() : pdfTextExtractor.extractText(item.pdf());
+                if (text == null || text.isBlank()) {
+                    failures.put(item.id(), "no text in resume");
+                    continue;
+                }
+                String email = item.email() != null && !item.email().isBlank()
+                        ? item.email().trim()
+                        : resumeHeuristicExtractor.extract(text).email();
+                if (email == null) {
+                    failures.put(item.id(), "no email (add it to manifest.ndjson)");
+                    continue;
+                }
+                texts.put(item.id(), text);
+                emails.put(item.id(), email.toLowerCase(Locale.ROOT));
+                ready.add(item);
+            } catch (Exception e) {
+                failures.put(item.id(), "text extraction failed: " + e.getMessage());
+            }
+        }
+
+        // never replace an existing profile (or one saved earlier in this chunk) unless opted in;
+        // checked before Gemini so a refused item costs no quota
+        Set<String> taken = existingProfiles(ready.stream().filter(i -> !i.overwrite()).map(i -> emails.get(i.id())).toList());
+        for (Iterator<Item> it = ready.iterator(); it.hasNext(); ) {
+            Item item = it.next();
+            if (item.overwrite()) continue;
+            if (!taken.add(emails.get(item.id()))) {
+                failures.put(item.id(), "a profile for " + emails.get(item.id())
+                        + " already exists (set \"overwrite\": true in the manifest to replace it)");
+                it.remove();
+            }
+        }
+
+        // several resumes per request; a malformed batched reply falls back to one call per resume
+        Map<Long, String> parsed = new HashMap<>();
+        int calls = 0;
+        GeminiUnavailableException unavailable = null;
+        for (int from = 0; from < ready.size() && unavailable == null; from += geminiBatchSize) {
+            List<Item> batch = ready.subList(from, Math.min(ready.size(), from + geminiBatchSize));
+            List<String> jsons;
+            try {
+                calls++;
+                jsons = chatBotService.convertJSONBatch(batch.stream().map(i -> texts.get(i.id())).toList());
+            } catch (GeminiUnavailableException e) {
+                unavailable = e;
+                break;
+            } catch (RuntimeException e) {
+                jsons = new ArrayList<>();
+                for (Item item : batch) {
+                    calls++;
+                    try {
+                        jsons.add(chatBotService.convertJSON(texts.get(item.id())));
+                    } catch (GeminiUnavailableException down) {
+                        unavailable = down;
+                        break;
+                    } catch (RuntimeException single) {
+                        jsons.add(null);
+                    }
+                }
+            }
+            // jsons is shorter than the batch only when Gemini went away during the fallback
+            for (int i = 0; i < jsons.size(); i++) {
+                String json = jsons.get(i);
+                if (json == null || json.isBlank() || json.equals("{}")) {
+                    failures.put(batch.get(i).id(), "parser returned no data");
+                } else {
+                    parsed.put(batch.get(i).id(), json);
+                }
+            }
+        }
+
+        // back to PENDING: items Gemini never got to (not parsed, not failed)
+        List<Item> unparsed = new ArrayList<>();
+        if (unavailable != null) {
+            for (Item item : ready) {
+                if (!parsed.containsKey(item.id()) && !failures.containsKey(item.id())) unparsed.add(item);
+            }
+        }
+
+        List<JsonData> saved = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                for (Item item : ready) {
+                    if (!parsed.containsKey(item.id())) continue;
+                    saved.add(saveItem(item, emails.get(item.id()), parsed.get(item.id())));
+                }
+                recordOutcome(runId, failures, saved.size());
+            });
+        } catch (Exception chunkFailure) {
+            // one bad item must not sink the chunk: retry each in its own transaction
+            saved.clear();
+            for (Item item : ready) {
+                if (!parsed.containsKey(item.id())) continue;
+                try {
+                    JsonData one = transactionTemplate.execute(tx -> saveItem(item, emails.get(item.id()), parsed.get(item.id())));
+                    saved.add(one);
+                } catch (Exception e) {
+                    failures.put(item.id(), "save failed: " + e.getMessage());
+                }
+            }
+            transactionTemplate.executeWithoutResult(tx -> recordOutcome(runId, failures, saved.size()));
+        }
+        jdbcTemplate.update("UPDATE resume_import_run SET gemini_calls = gemini_calls + ? WHERE id = ?", calls, runId);
+
+        if (!unparsed.isEmpty()) release(unparsed);
+
+        // after commit: re-ranking takes per-project locks, which must not be held for the whole chunk
+        for (JsonData profile : saved) {
+            chatBotService.refreshRecommendations(profile);
+            try { chatBotService.sendResumeJson(profile); } catch (Exception ignored) {}
+        }
+        if (unavailable != null) throw unavailable;
+    }
+
+    private JsonData saveItem(Item item, String email, String json) {
+        // a concurrent chunk may have created the profile since the check in processChunk
+        if (!item.overwrite() && !existingProfiles(List.of(email)).isEmpty()) {
+            throw new IllegalStateException("a profile for " + email + " already exists");
+        }
+        JsonData profile = chatBotService.storeJsonForEmail(json, email, item.name(), item.year(),
+                item.department(), item.institution(), item.availability(), item.pdf());
+        // the PDF now lives on the profile; drop the staged copy
+        jdbcTemplate.update("""
+                UPDATE resume_import_item
+                   SET status = 'DONE', profile_id = ?, resume_pdf = NULL, claimed_at = NULL, error = NULL
+                 WHERE id = ?
+                """, profile.getId(), item.id());
+        return profile;
+    }
+
+    private void recordOutcome(long runId, Map<Long, String> failures, int succeeded) {
+        for (Map.Entry<Long, String> f : failures.entrySet()) {
+            jdbcTemplate.update("UPDATE resume_import_item SET status = 'FAILED', error = ?, claimed_at = NULL WHERE id = ?",
+                    abbreviate(f.getValue()), f.getKey());
+        }
+        jdbcTemplate.update("UPDATE resume_import_run SET succeeded = succeeded + ?, failed = failed + ? WHERE id = ?",
+                succeeded, failures.size(), runId);
+    }
+
+    private boolean isRunning(long runId) {
+        List<String> status = jdbcTemplate.queryForList("SELECT status FROM resume_import_run WHERE id = ?", String.class, runId);
+        return !status.isEmpty() && "RUNNING".equals(status.get(0));
+    }
+
+    private void finishIfDone(long runId) {
+        int done = jdbcTemplate.update("""
+                UPDATE resume_import_run SET status = 'COMPLETED', finished_at = now()
+                 WHERE id = ? AND status = 'RUNNING'
+                   AND NOT EXISTS (SELECT 1 FROM resume_import_item
+                                    WHERE run_id = ? AND status IN ('PENDING', 'CLAIMED'))
+                """, runId, runId);
+        if (done > 0) {
+            Map<String, Object> r = report(runId);
+            System.out.println("Resume import " + runId + " completed: " + r.get("succeeded") + " saved, "
+                    + r.get("failed") + " failed, " + r.get("resumesPerSecond") + " resumes/s, "
+                    + r.get("resumesPerGeminiCall") + " resumes per Gemini call");
+        }
+    }
+
+    // ---- helpers ----
+
+    private Set<String> existingProfiles(List<String> emails) {
+        if (emails.isEmpty()) return new HashSet<>();
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT email FROM resume WHERE email = ANY(?)",
+                String.class, (Object) emails.toArray(String[]::new)));
+    }
+
+    private static boolean overwrite(Map<String, Object> m) {
+        Object v = m.get("overwrite");
+        return v != null && Boolean.parseBoolean(v.toString().trim());
+    }
+
+    // null = entry larger than max
+    private static byte[] readCapped(InputStream in, long max) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        long total = 0;
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            total += n;
+            if (total > max) return null;
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static String str(Map<String, Object> m, String... keys) {
+        for (String k : keys) {
+            Object v = m.get(k);
+            if (v != null && !v.toString().isBlank()) return v.toString().trim();
+        }
+        return null;
+    }
+
+    private static String abbreviate(String s) {
+        return s == null || s.length() <= 255 ? s : s.substring(0, 252) + "...";
+    }
+
+    private static Instant instant(Object value) {
+        if (value instanceof Timestamp t) return t.toInstant();
+        if (value instanceof java.time.OffsetDateTime o) return o.toInstant();
+        if (value instanceof Instant i) return i;
+        return null;
+    }
+}
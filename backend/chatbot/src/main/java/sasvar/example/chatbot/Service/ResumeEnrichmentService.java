@@ -0,0 +1,124 @@
+package sasvar.example.chatbot.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import sasvar.example.chatbot.Database.JsonData;
+import sasvar.example.chatbot.Exception.GeminiUnavailableException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Two-phase resume parsing for uploads and registration.
+// The request saves the local heuristic pass (ResumeHeuristicExtractor) and returns at once;
+// the Gemini parse runs here in the background and is merged into the stored profile.
+// While more than max-pending parses are queued, new requests parse synchronously as before,
+// so a Gemini outage cannot grow the backlog without bound.
+@Service
+public class ResumeEnrichmentService {
+
+    @Autowired
+    private ChatBotService chatBotService;
+
+    @Autowired
+    private ResumeHeuristicExtractor resumeHeuristicExtractor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${resume.enrich.async:true}")
+    private boolean async;
+
+    @Value("${resume.enrich.threads:2}")
+    private int threads;
+
+    @Value("${resume.enrich.max-pending:200}")
+    private int maxPending;
+
+    @Value("${resume.enrich.max-attempts:4}")
+    private int maxAttempts;
+
+    private ScheduledThreadPoolExecutor pool;
+    private final AtomicInteger pending = new AtomicInteger();
+    private Timer latency;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger n = new AtomicInteger();
+        pool = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread t = new Thread(r, "resume-enrich-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        latency = Timer.builder("resume.enrich.latency")
+                .description("Upload-to-merge delay of the background Gemini resume parse")
+                .register(meterRegistry);
+        meterRegistry.gauge("resume.enrich.pending", pending);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // JSON to store with the request: the heuristic pass when the Gemini parse can be deferred,
+    // otherwise the full synchronous parse (may throw GeminiUnavailableException as before)
+    public String initialJson(String resumeText) {
+        if (async && pending.get() < maxPending) {
+            return resumeHeuristicExtractor.extractJson(resumeText);
+        }
+        return chatBotService.convertJSON(resumeText);
+    }
+
+    // Queue the Gemini parse for a profile saved with initialJson.
+    // Returns false when there is nothing to do (the stored JSON is already the full parse).
+    public boolean enrichLater(JsonData saved, String resumeText) {
+        if (saved == null || resumeText == null || resumeText.isBlank()
+                || !chatBotService.isHeuristicOnly(saved)) {
+            return false;
+        }
+        pending.incrementAndGet();
+        Instant savedAt = saved.getCreatedAt();
+        pool.execute(() -> attempt(saved.getId(), savedAt, resumeText, 1));
+        return true;
+    }
+
+    private void attempt(Long profileId, Instant savedAt, String resumeText, int attemptNo) {
+        try {
+            String parsed = chatBotService.convertJSON(resumeText);
+            JsonData merged = chatBotService.mergeParsedJson(profileId, savedAt, parsed);
+            if (merged != null) {
+                latency.record(Duration.between(savedAt, Instant.now()));
+                meterRegistry.counter("resume.enrich", "outcome", "merged").increment();
+                try { chatBotService.sendResumeJson(merged); } catch (Exception ignored) {}
+            } else {
+                meterRegistry.counter("resume.enrich", "outcome", "skipped").increment();
+            }
+            pending.decrementAndGet();
+        } catch (GeminiUnavailableException e) {
+            if (attemptNo < maxAttempts) {
+                // honour Gemini's Retry-After, growing with each attempt
+                long delay = Math.max(1, e.getRetryAfterSeconds()) * attemptNo;
+                pool.schedule(() -> attempt(profileId, savedAt, resumeText, attemptNo + 1), delay, TimeUnit.SECONDS);
+                return;
+            }
+            giveUp(profileId, e);
+        } catch (Exception e) {
+            giveUp(profileId, e);
+        }
+    }
+
+    // the heuristic JSON stays in place; a later resume update re-parses it
+    private void giveUp(Long profileId, Exception e) {
+        pending.decrementAndGet();
+        meterRegistry.counter("resume.enrich", "outcome", "failed").increment();
+        System.out.println("Background resume parse failed for profile " + profileId + ": " + e.getMessage());
+    }
+}
@@ -0,0 +1,231 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Service;
+import sasvar.example.chatbot.Utils.SkillDictionary;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * First-pass resume parser that runs locally in well under a millisecond.
+ * Regexes and header-line heuristics pick out the fields that are easy to find
+ * (name, email, phone, GitHub/LinkedIn, year of study, department) and the skills
+ * SkillDictionary recognises in the text, so an upload can be saved and answered right away. The full Gemini parse is merged in later
+ * (see ResumeEnrichmentService).
+ */
+@Service
+public class ResumeHeuristicExtractor {
+
+    // marker key in profile_json: present while the stored JSON is only the heuristic pass
+    public static final String MARKER_FIELD = "_parser";
+    public static final String MARKER_VALUE = "heuristic";
+
+    public record Fields(String name,
+                         String email,
+                         String phone,
+                         String github,
+                         String linkedin,
+                         String year,
+                         String department,
+                         List<String> skills) {
+    }
+
+    // the header block carries almost everything we look for; the rest is only scanned for links
+    private static final int HEADER_CHARS = 1500;
+    private static final int BODY_CHARS = 6000;
+    private static final int NAME_LINES = 6;
+
+    private static final Pattern EMAIL = Pattern.compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}");
+    private static final Pattern PHONE = Pattern.compile("\\+?\\(?\\d[\\d\\s().-]{8,16}\\d");
+    private static final Pattern GITHUB = Pattern.compile("(?i)github\\.com/([A-Za-z0-9](?:[A-Za-z0-9-]{0,38}))");
+    private static final Pattern LINKEDIN = Pattern.compile("(?i)linkedin\\.com/in/([A-Za-z0-9_-]{3,100})");
+    private static final Pattern NAME_LABEL = Pattern.compile("(?i)^name\\s*[:\\-]\\s*(.+)$");
+    private static final Pattern NAME_WORD = Pattern.compile("[\\p{L}][\\p{L}.'-]*");
+    private static final Pattern LINE_SPLIT = Pattern.compile("\\s*[|•·,;]\\s*|\\s{3,}");
+
+    private static final Pattern YEAR_ORDINAL = Pattern.compile(
+            "(?i)\\b(1st|2nd|3rd|4th|first|second|third|fourth|final|pre-?final)[\\s-]+year\\b");
+    private static final Pattern YEAR_LABEL = Pattern.compile("(?i)\\byear\\s*(?:of study)?\\s*[:\\-]?\\s*([1-5]|I{1,3}|IV)\\b");
+    private static final Pattern SEMESTER = Pattern.compile("(?i)\\b(?:semester|sem)\\s*[:\\-]?\\s*([1-9]|10)\\b");
+
+    private static final Pattern DEPARTMENT = Pattern.compile(
+            "(?i)(?:department of|dept\\.? of|b\\.?\\s?tech\\.?|b\\.?\\s?e\\.?|m\\.?\\s?tech\\.?|b\\.?\\s?sc\\.?|"
+                    + "bachelor of (?:technology|engineering|science)|master of (?:technology|engineering|science))"
+                    + "\\s*(?:degree\\s*)?(?:in|-|–|,|:)?\\s*"
+                    + "([A-Za-z][A-Za-z&() ]{1,60}?)\\s*(?=$|[,|\\n(\\d–-]|\\bat\\b|\\bfrom\\b)");
+    // upper-case abbreviations, matched case-sensitively so "it" in prose is not a department
+    private static final Pattern DEPARTMENT_ABBREVIATION = Pattern.compile(
+            "\\b(CSE|ECE|EEE|EIE|IT|AI&DS|AIDS|AIML|AI&ML|CSBS|MECH|CIVIL|CHEM|BME)\\b");
+
+    private static final Map<String, String> ORDINAL_YEARS = Map.of(
+            "1st", "1", "first", "1",
+            "2nd", "2", "second", "2",
+            "3rd", "3", "third", "3",
+            "4th", "4", "fourth", "4",
+            "final", "4");
+
+    private static final Pattern NOT_A_NAME = Pattern.compile(
+            "(?i)^(resume|curriculum vitae|cv|bio-?data|profile|contact|summary|objective|education|skills)$");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SkillDictionary skillDictionary;
+
+    public ResumeHeuristicExtractor(SkillDictionary skillDictionary) {
+        this.skillDictionary = skillDictionary;
+    }
+
+    public Fields extract(String text) {
+        if (text == null || text.isBlank()) {
+            return new Fields(null, null, null, null, null, null, null, List.of());
+        }
+        String header = text.length() > HEADER_CHARS ? text.substring(0, HEADER_CHARS) : text;
+        String body = text.length() > BODY_CHARS ? text.substring(0, BODY_CHARS) : text;
+
+        return new Fields(
+                name(header),
+                firstGroup(EMAIL, header, 0),
+                phone(header),
+                link(GITHUB, body, "https://github.com/"),
+                link(LINKEDIN, body, "https://www.linkedin.com/in/"),
+                year(body),
+                department(body),
+                skillDictionary.scanNames(text)
+        );
+    }
+
+    // JSON in the shape of the Gemini schema's "profile" block, plus a "contact" block and the marker
+    public String toJson(Fields f) {
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode profile = root.putObject("profile");
+        putIfPresent(profile, "name", f.name());
+        putIfPresent(profile, "year", f.year());
+        putIfPresent(profile, "department", f.department());
+        // one flat list; skill_tags (and so recommendations) pick it up before the full parse lands
+        if (!f.skills().isEmpty()) {
+            f.skills().forEach(root.putObject("skills").putArray("detected")::add);
+        }
+        ObjectNode contact = root.putObject("contact");
+        putIfPresent(contact, "email", f.email());
+        putIfPresent(contact, "phone", f.phone());
+        putIfPresent(contact, "github", f.github());
+        putIfPresent(contact, "linkedin", f.linkedin());
+        root.put(MARKER_FIELD, MARKER_VALUE);
+        return root.toString();
+    }
+
+    public String extractJson(String text) {
+        return toJson(extract(text));
+    }
+
+    // a "Name: ..." label wins; otherwise the first short line of 2-4 alphabetic words
+    private String name(String header) {
+        String[] lines = header.split("\\R");
+        int seen = 0;
+        for (String raw : lines) {
+            String line = raw.strip();
+            if (line.isEmpty()) continue;
+            if (++seen > NAME_LINES) break;
+
+            Matcher label = NAME_LABEL.matcher(line);
+            if (label.matches()) {
+                String candidate = nameCandidate(LINE_SPLIT.split(label.group(1).strip())[0]);
+                if (candidate != null) return candidate;
+                continue;
+            }
+            String candidate = nameCandidate(LINE_SPLIT.split(line)[0]);
+            if (candidate != null) return candidate;
+        }
+        return null;
+    }
+
+    private String nameCandidate(String segment) {
+        String s = segment.strip();
+        if (s.isEmpty() || s.length() > 50 || NOT_A_NAME.matcher(s).matches()) return null;
+        String[] words = s.split("\\s+");
+        if (words.length < 2 || words.length > 4) return null;
+        StringBuilder sb = new StringBuilder();
+        for (String w : words) {
+            if (!NAME_WORD.matcher(w).matches()) return null;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(titleCase(w));
+        }
+        return sb.toString();
+    }
+
+    // 10-13 digits, so dates and year ranges ("2019 - 2023") are not taken for phone numbers
+    private String phone(String header) {
+        Matcher m = PHONE.matcher(header);
+        while (m.find()) {
+            String candidate = m.group().strip();
+            int digits = 0;
+            for (int i = 0; i < candidate.length(); i++) {
+                if (Character.isDigit(candidate.charAt(i))) digits++;
+            }
+            if (digits >= 10 && digits <= 13) {
+                return candidate.replaceAll("\\s{2,}", " ");
+            }
+        }
+        return null;
+    }
+
+    private String link(Pattern pattern, String text, String prefix) {
+        String handle = firstGroup(pattern, text, 1);
+        return handle == null ? null : prefix + handle;
+    }
+
+    private String year(String text) {
+        Matcher m = YEAR_ORDINAL.matcher(text);
+        if (m.find()) {
+            String word = m.group(1).toLowerCase(Locale.ROOT).replace("-", "");
+            if (word.equals("prefinal")) return "3";
+            return ORDINAL_YEARS.get(word);
+        }
+        m = YEAR_LABEL.matcher(text);
+        if (m.find()) {
+            return switch (m.group(1).toUpperCase(Locale.ROOT)) {
+                case "I" -> "1";
+                case "II" -> "2";
+                case "III" -> "3";
+                case "IV" -> "4";
+                default -> m.group(1);
+            };
+        }
+        m = SEMESTER.matcher(text);
+        if (m.find()) {
+            return String.valueOf((Integer.parseInt(m.group(1)) + 1) / 2);
+        }
+        return null;
+    }
+
+    private String department(String text) {
+        Matcher m = DEPARTMENT.matcher(text);
+        if (m.find()) {
+            String dept = m.group(1).strip().replaceAll("\\s{2,}", " ");
+            if (dept.length() >= 2) return dept;
+        }
+        return firstGroup(DEPARTMENT_ABBREVIATION, text, 1);
+    }
+
+    private static String firstGroup(Pattern pattern, String text, int group) {
+        Matcher m = pattern.matcher(text);
+        return m.find() ? m.group(group) : null;
+    }
+
+    private static String titleCase(String word) {
+        // keep initials and mixed case ("McDonald") as written, only fix ALL-CAPS / all-lower words
+        if (!word.equals(word.toUpperCase(Locale.ROOT)) && !word.equals(word.toLowerCase(Locale.ROOT))) {
+            return word;
+        }
+        if (word.length() == 1 || word.endsWith(".")) return word.toUpperCase(Locale.ROOT);
+        return word.substring(0, 1).toUpperCase(Locale.ROOT) + word.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    private static void putIfPresent(ObjectNode node, String field, String value) {
+        if (value != null && !value.isBlank()) node.put(field, value);
+    }
+}
@@ -0,0 +1,85 @@
+package sasvar.example.chatbot.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+import sasvar.example.chatbot.Exception.InvalidResumeException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+// Writes resume PDFs into resume.resume_pdf straight from the uploaded part.
+// The bytes go stream -> digest -> JDBC, so the file is never held in memory as a whole.
+@Service
+public class ResumeStorageService {
+
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${resume.pdf.max-bytes:10485760}")
+    private long maxBytes;
+
+    // Stream the PDF part into the profile row and return its SHA-256 (hex)
+    @Transactional
+    public String store(Long profileId, MultipartFile pdf) throws IOException {
+        if (profileId == null) {
+            throw new RuntimeException("Profile id required to store resume PDF");
+        }
+        long size = pdf.getSize();
+        if (size <= 0) {
+            throw new InvalidResumeException("Resume PDF is empty");
+        }
+        if (size > maxBytes) {
+            throw new InvalidResumeException("Resume PDF exceeds " + maxBytes + " bytes");
+        }
+
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(new BufferedInputStream(pdf.getInputStream()), digest)) {
+            in.mark(PDF_MAGIC.length);
+            byte[] head = in.readNBytes(PDF_MAGIC.length);
+            if (!Arrays.equals(head, PDF_MAGIC)) {
+                throw new InvalidResumeException("Uploaded file is not a PDF");
+            }
+            in.reset();
+            // digest is only fed by read(); reset() rewinds the buffer, so start it over
+            digest.reset();
+
+            jdbcTemplate.update(con -> {
+                var ps = con.prepareStatement("UPDATE resume SET resume_pdf = ? WHERE id = ?");
+                ps.setBinaryStream(1, in, size);
+                ps.setLong(2, profileId);
+                return ps;
+            });
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        jdbcTemplate.update("UPDATE resume SET resume_sha256 = ?, resume_size = ? WHERE id = ?",
+                sha256, size, profileId);
+        return sha256;
+    }
+
+    // Hash for PDFs that still arrive as bytes (legacy base64 JSON endpoints)
+    public static String sha256Hex(byte[] bytes) {
+        if (bytes == null) return null;
+        return HexFormat.of().formatHex(newSha256().digest(bytes));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package sasvar.example.chatbot.Service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Shrinks raw resume text before it is sent to Gemini.
+ * Steps: Unicode/whitespace normalization → page-number and running header/footer removal →
+ * section detection (boilerplate sections and in-section duplicate lines dropped) →
+ * token-budget truncation.
+ * Prompt tokens drive Gemini latency and cost, so everything that does not help
+ * the parser is removed here.
+ */
+@Service
+public class ResumeTextPreprocessor {
+
+    // Result of one pass; fingerprint is a SHA-256 of the reduced text, usable as a parse cache key
+    public record Result(String text,
+                         int bytesIn,
+                         int bytesOut,
+                         int estimatedTokens,
+                         List<String> sections,
+                         String fingerprint) {
+    }
+
+    private static final Pattern INVISIBLE = Pattern.compile("[\\u200B-\\u200D\\u2060\\uFEFF\\u00AD]");
+    private static final Pattern CONTROL = Pattern.compile("[\\p{Cc}&&[^\\n\\t]]");
+    private static final Pattern SPACES = Pattern.compile("[\\s\\u00A0]+");
+    private static final Pattern BULLETS = Pattern.compile("^[•●▪◦■□➢➤►▶\\-*·]+\\s*");
+    private static final Pattern PAGE_NUMBER = Pattern.compile("(?i)^(page\\s*)?\\d{1,3}(\\s*(of|/)\\s*\\d{1,3})?$");
+
+    // lines this close to the start/end of the text or to a page number are where running
+    // page headers and footers sit
+    private static final int PAGE_EDGE_LINES = 2;
+
+    // canonical section -> header spellings (matched on the whole line, case-insensitive)
+    private static final Map<String, Pattern> SECTION_HEADERS = new LinkedHashMap<>();
+    static {
+        SECTION_HEADERS.put("summary", header("summary|profile|objective|career objective|about me|professional summary"));
+        SECTION_HEADERS.put("education", header("education|academic background|academics|qualifications"));
+        SECTION_HEADERS.put("experience", header("experience|work experience|professional experience|internships?|employment"));
+        SECTION_HEADERS.put("projects", header("projects|academic projects|personal projects|key projects"));
+        SECTION_HEADERS.put("skills", header("skills|technical skills|skill set|core competencies|technologies"));
+        SECTION_HEADERS.put("achievements", header("achievements|awards|honors|honours|accomplishments"));
+        SECTION_HEADERS.put("certifications", header("certifications?|courses|certificates"));
+        SECTION_HEADERS.put("open_source", header("open source|contributions|open source contributions"));
+        SECTION_HEADERS.put("interests", header("interests|areas of interest|hobbies|extra-?curricular activities"));
+        SECTION_HEADERS.put("references", header("references|referees"));
+        SECTION_HEADERS.put("declaration", header("declaration"));
+        SECTION_HEADERS.put("personal", header("personal details|personal information"));
+    }
+
+    // sections that never help the parser
+    private static final Set<String> DROPPED_SECTIONS = Set.of("references", "declaration", "personal");
+
+    // order in which sections keep their text when the budget is tight ("header" = lines before the first section)
+    private static final List<String> PRIORITY = List.of(
+            "header", "skills", "projects", "experience", "education", "summary",
+            "open_source", "achievements", "certifications", "interests");
+
+    private final int maxTokens;
+    private final DistributionSummary bytesIn;
+    private final DistributionSummary bytesOut;
+
+    public ResumeTextPreprocessor(MeterRegistry meterRegistry,
+                                  @Value("${gemini.prompt.max-resume-tokens:3000}") int maxTokens) {
+        this.maxTokens = maxTokens;
+        this.bytesIn = DistributionSummary.builder("resume.preprocess.bytes.in")
+                .description("Resume text size before pre-processing")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.bytesOut = DistributionSummary.builder("resume.preprocess.bytes.out")
+                .description("Resume text size sent to Gemini after pre-processing")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Result prepare(String raw) {
+        String input = raw == null ? "" : raw;
+        int inBytes = input.getBytes(StandardCharsets.UTF_8).length;
+
+        List<Section> sections = splitSections(cleanLines(input));
+        String text = fitBudget(sections);
+
+        int outBytes = text.getBytes(StandardCharsets.UTF_8).length;
+        bytesIn.record(inBytes);
+        bytesOut.record(outBytes);
+
+        List<String> names = sections.stream().map(s -> s.name).filter(n -> !"header".equals(n)).toList();
+        String fingerprint = ResumeStorageService.sha256Hex(text.getBytes(StandardCharsets.UTF_8));
+        return new Result(text, inBytes, outBytes, estimateTokens(text), names, fingerprint);
+    }
+
+    // Local token estimate, close enough to Gemini's tokenizer for budgeting:
+    // roughly one token per 4 characters of a word, and one per punctuation mark.
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        int tokens = 0;
+        int wordLen = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                wordLen++;
+                continue;
+            }
+            if (wordLen > 0) {
+                tokens += (wordLen + 3) / 4;
+                wordLen = 0;
+            }
+            if (!Character.isWhitespace(c)) tokens++;
+        }
+        if (wordLen > 0) tokens += (wordLen + 3) / 4;
+        return tokens;
+    }
+
+    // normalize Unicode and whitespace, drop page numbers and running headers/footers
+    private List<String> cleanLines(String input) {
+        String s = Normalizer.normalize(input, Normalizer.Form.NFKC);
+        s = INVISIBLE.matcher(s).replaceAll("");
+        s = s.replace("\r\n", "\n").replace('\r', '\n');
+        s = CONTROL.matcher(s).replaceAll(" ");
+
+        List<String> lines = new ArrayList<>();
+        List<Boolean> edge = new ArrayList<>();
+        int edgeAhead = PAGE_EDGE_LINES;
+        for (String line : s.split("\n")) {
+            String l = SPACES.matcher(line).replaceAll(" ").trim();
+            String content = BULLETS.matcher(l).replaceFirst("");
+            if (content.isEmpty()) continue;
+            if (PAGE_NUMBER.matcher(content).matches()) {
+                // a page break: the lines around it are page edges
+                for (int i = Math.max(0, edge.size() - PAGE_EDGE_LINES); i < edge.size(); i++) edge.set(i, true);
+                edgeAhead = PAGE_EDGE_LINES;
+                continue;
+            }
+            lines.add(content.length() < l.length() ? "- " + content : content);
+            edge.add(edgeAhead-- > 0);
+        }
+        for (int i = Math.max(0, edge.size() - PAGE_EDGE_LINES); i < edge.size(); i++) edge.set(i, true);
+
+        // Running headers/footers keep their first copy only: a line repeated at page edges, or a
+        // repeat of the opening lines (name / contact, which page headers copy and which we
+        // cannot place when the text has no page numbers). Other repeats are left to
+        // splitSections, which only de-duplicates within a section.
+        List<String> out = new ArrayList<>();
+        Set<String> opening = new HashSet<>();
+        Set<String> atEdges = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String key = dedupKey(lines.get(i));
+            if (i >= PAGE_EDGE_LINES && opening.contains(key)) continue;
+            if (edge.get(i) && !atEdges.add(key)) continue;
+            if (i < PAGE_EDGE_LINES && sectionOf(lines.get(i)) == null) opening.add(key);
+            out.add(lines.get(i));
+        }
+        return out;
+    }
+
+    private List<Section> splitSections(List<String> lines) {
+        List<Section> sections = new ArrayList<>();
+        Section current = new Section("header");
+        sections.add(current);
+        for (String line : lines) {
+            String name = sectionOf(line);
+            if (name != null) {
+                current = new Section(name);
+                sections.add(current);
+            }
+            // copy-paste duplicates (bullet or not) within the section; the same line under
+            // another section (e.g. a skill named again in a project) is kept
+            if (!current.seen.add(dedupKey(line))) continue;
+            current.lines.add(line);
+        }
+        sections.removeIf(sec -> DROPPED_SECTIONS.contains(sec.name) || sec.lines.isEmpty());
+        return sections;
+    }
+
+    private static String dedupKey(String line) {
+        return (line.startsWith("- ") ? line.substring(2) : line).toLowerCase(Locale.ROOT);
+    }
+
+    private String sectionOf(String line) {
+        if (line.length() > 40) return null;
+        String l = line.replaceAll("[:\\-–—|]+$", "").trim();
+        for (Map.Entry<String, Pattern> e : SECTION_HEADERS.entrySet()) {
+            if (e.getValue().matcher(l).matches()) return e.getKey();
+        }
+        return null;
+    }
+
+    // keep whole lines, filling high-priority sections first; output stays in document order
+    private String fitBudget(List<Section> sections) {
+        int remaining = maxTokens;
+        List<Section> byPriority = new ArrayList<>(sections);
+        byPriority.sort(Comparator.comparingInt(sec -> {
+            int i = PRIORITY.indexOf(sec.name);
+            return i < 0 ? PRIORITY.size() : i;
+        }));
+        for (Section sec : byPriority) {
+            for (String line : sec.lines) {
+                int cost = estimateTokens(line) + 1;
+                if (cost > remaining) break;
+                remaining -= cost;
+                sec.kept++;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (Section sec : sections) {
+            for (int i = 0; i < sec.kept; i++) {
+                sb.append(sec.lines.get(i)).append('\n');
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private static Pattern header(String alternatives) {
+        return Pattern.compile("(?i)^(" + alternatives + ")$");
+    }
+
+    private static final class Section {
+        final String name;
+        final List<String> lines = new ArrayList<>();
+        final Set<String> seen = new HashSet<>();
+        int kept;
+
+        Section(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package sasvar.example.chatbot.Service;
+
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// "warmup" health contributor, part of the readiness group:
+// OUT_OF_SERVICE with per-step progress until WarmupService is done, then UP.
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupService warmupService;
+
+    public WarmupHealthIndicator(WarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        var steps = warmupService.getSteps();
+        long finished = steps.values().stream().filter(v -> !"pending".equals(v)).count();
+        Health.Builder builder = warmupService.getPhase() == WarmupService.Phase.DONE
+                ? Health.up()
+                : Health.outOfService();
+        return builder
+                .withDetail("phase", warmupService.getPhase().name())
+                .withDetail("progress", finished + "/" + steps.size())
+                .withDetail("steps", steps)
+                .build();
+    }
+}
@@ -0,0 +1,264 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+import sasvar.example.chatbot.Database.ProjectData;
+import sasvar.example.chatbot.Dto.ProjectFeedItem;
+import sasvar.example.chatbot.Utils.JwtUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs once after startup, before the readiness probe reports UP (see WarmupHealthIndicator):
+// fills the DB pool, pushes the JSON/JWT/BCrypt code paths and the main GET endpoints through
+// the JIT with a synthetic user, and opens the keep-alive connections to Gemini and Django.
+// A failing step is recorded and skipped; it never keeps the instance out of rotation.
+// Each step runs on its own thread and is waited for only until warmup.timeout-ms is spent,
+// so a hung step (e.g. a dropped connection) cannot hold readiness past the deadline.
+@Service
+public class WarmupService {
+
+    public enum Phase { PENDING, RUNNING, DONE }
+
+    private static final String WARMUP_EMAIL = "warmup@converge.invalid";
+
+    // loopback GETs; all are read-only and return empty results for the synthetic user
+    private static final List<String> WARMUP_PATHS = List.of(
+            "/api/projects",
+            "/api/projects/dashboard",
+            "/api/projects/explore?days=1",
+            "/api/projects/teammates/requests?days=1",
+            "/api/people/search?limit=1",
+            "/api/profile"
+    );
+
+    private static final String SAMPLE_PROFILE_JSON = """
+            {"profile":{"name":"Warm Up","year":"3","department":"CSE","availability":"high"},
+             "skills":{"programming_languages":["java","python"],"frameworks_libraries":["spring"],
+                       "tools_platforms":["docker"],"core_cs_concepts":["dbms"],"domain_skills":["web"]},
+             "experience_level":{"overall":"intermediate","by_domain":{"web_dev":"advanced"}}}
+            """;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private GeminiClient geminiClient;
+
+    @Autowired
+    private DjangoMlClient djangoMlClient;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.iterations:20}")
+    private int iterations;
+
+    @Value("${warmup.db-connections:5}")
+    private int dbConnections;
+
+    @Value("${warmup.timeout-ms:60000}")
+    private long timeoutMs;
+
+    @Value("${warmup.preconnect-timeout-ms:3000}")
+    private long preconnectTimeoutMs;
+
+    private volatile Phase phase = Phase.PENDING;
+    private final Map<String, String> steps = new LinkedHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            phase = Phase.DONE;
+            return;
+        }
+        Thread t = new Thread(this::runAll, "warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    // step name -> "pending" | "ok (N ms)" | "failed: <exception type>" | "timed out" | "skipped: timeout"
+    public synchronized Map<String, String> getSteps() {
+        return new LinkedHashMap<>(steps);
+    }
+
+    private void runAll() {
+        phase = Phase.RUNNING;
+        long started = System.currentTimeMillis();
+        long deadline = started + timeoutMs;
+
+        Map<String, Runnable> plan = new LinkedHashMap<>();
+        plan.put("database", this::warmDatabase);
+        plan.put("json", this::warmJson);
+        plan.put("jwt", this::warmJwt);
+        plan.put("bcrypt", this::warmBcrypt);
+        plan.put("endpoints", this::warmEndpoints);
+        plan.put("gemini", () -> geminiClient.preconnect(preconnectTimeoutMs));
+        plan.put("django", djangoMlClient::preconnect);
+        synchronized (this) {
+            plan.keySet().forEach(name -> steps.put(name, "pending"));
+        }
+
+        // a step still running at the deadline is abandoned (interrupted) on its daemon thread
+        ExecutorService runner = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "warmup-step");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (Map.Entry<String, Runnable> step : plan.entrySet()) {
+                String result;
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    result = "skipped: timeout";
+                } else {
+                    long t0 = System.currentTimeMillis();
+                    Future<?> running = runner.submit(step.getValue());
+                    try {
+                        running.get(left, TimeUnit.MILLISECONDS);
+                        result = "ok (" + (System.currentTimeMillis() - t0) + " ms)";
+                    } catch (TimeoutException e) {
+                        running.cancel(true);
+                        result = "timed out";
+                        System.out.println("Warm-up step " + step.getKey() + " still running at the deadline, abandoned");
+                    } catch (ExecutionException e) {
+                        // the health detail gets a fixed code; the message (hosts, SQL states) only goes to the log
+                        Throwable failure = e.getCause();
+                        Throwable cause = failure.getCause() == null ? failure : failure.getCause();
+                        result = "failed: " + cause.getClass().getSimpleName();
+                        System.out.println("Warm-up step " + step.getKey() + " failed: " + failure.getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        running.cancel(true);
+                        result = "skipped: interrupted";
+                    }
+                }
+                synchronized (this) {
+                    steps.put(step.getKey(), result);
+                }
+            }
+        } finally {
+            runner.shutdownNow();
+        }
+
+        phase = Phase.DONE;
+        System.out.println("Warm-up finished in " + (System.currentTimeMillis() - started) + " ms: " + getSteps());
+    }
+
+    // hold several connections at once so the pool really opens them now
+    private void warmDatabase() {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < dbConnections; i++) {
+                Connection c = dataSource.getConnection();
+                held.add(c);
+                try (Statement st = c.createStatement()) {
+                    st.execute("SELECT 1");
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            for (Connection c : held) {
+                try { c.close(); } catch (Exception ignored) {}
+            }
+        }
+    }
+
+    // the Jackson 2 paths used by ChatBotService and the streaming exports
+    private void warmJson() {
+        ObjectMapper mapper = new ObjectMapper();
+        ProjectData p = new ProjectData();
+        p.setId(0L);
+        p.setTitle("Warm-up");
+        p.setType("web");
+        p.setVisibility("public");
+        p.setRequiredSkills("java,spring");
+        p.setEmail(WARMUP_EMAIL);
+        try {
+            for (int i = 0; i < iterations; i++) {
+                JsonNode node = mapper.readTree(SAMPLE_PROFILE_JSON);
+                mapper.writeValueAsString(node);
+                mapper.writeValueAsString(ProjectFeedItem.from(p));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private void warmJwt() {
+        for (int i = 0; i < iterations; i++) {
+            jwtUtils.validateToken(jwtUtils.generateToken(WARMUP_EMAIL));
+        }
+    }
+
+    // BCrypt is deliberately slow; a few rounds are enough to load and compile it
+    private void warmBcrypt() {
+        String hash = passwordEncoder.encode("warm-up-password");
+        passwordEncoder.matches("warm-up-password", hash);
+    }
+
+    // through the real filter chain, controllers and MVC serialization, as the synthetic user
+    private void warmEndpoints() {
+        String port = environment.getProperty("local.server.port");
+        if (port == null) return;
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(1000);
+        factory.setReadTimeout(5000);
+        RestTemplate rest = new RestTemplate(factory);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtUtils.generateToken(WARMUP_EMAIL));
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        for (int i = 0; i < iterations; i++) {
+            for (String path : WARMUP_PATHS) {
+                // abandoned at the deadline: stop after the call in progress
+                if (Thread.currentThread().isInterrupted()) return;
+                try {
+                    rest.exchange("http://localhost:" + port + path, HttpMethod.GET, request, String.class);
+                } catch (RestClientResponseException expected) {
+                    // e.g. 404 "Profile not found" for the synthetic user — the path still ran
+                }
+            }
+        }
+    }
+}
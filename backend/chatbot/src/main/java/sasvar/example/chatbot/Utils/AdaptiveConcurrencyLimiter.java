@@ -0,0 +1,129 @@
+package sasvar.example.chatbot.Utils;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limiter.
+ * The limit grows by ~1 per "window" of successful calls and is halved when the
+ * downstream signals overload (e.g. HTTP 429). Callers that cannot get a slot wait
+ * in a strict FIFO queue for at most the given budget.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Outcome {
+        SUCCESS,    // call completed normally
+        DROPPED,    // downstream rejected for overload → multiplicative decrease
+        IGNORE      // failure unrelated to load, limit unchanged
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long decreaseCooldownNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Condition> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, long decreaseCooldownMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.decreaseCooldownNanos = TimeUnit.MILLISECONDS.toNanos(decreaseCooldownMs);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - decreaseCooldownNanos;
+    }
+
+    // Wait (FIFO) up to maxWaitMs for a slot; returns false when the budget runs out
+    public boolean acquire(long maxWaitMs) throws InterruptedException {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+
+            Condition me = lock.newCondition();
+            waiters.addLast(me);
+            long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            try {
+                while (waiters.peekFirst() != me || inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = me.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                waiters.remove(me);
+                signalHead();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Outcome outcome) {
+        lock.lock();
+        try {
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> limit = Math.min(maxLimit, limit + 1.0 / limit);
+                case DROPPED -> {
+                    // several calls usually fail from the same overload; decrease once per cooldown
+                    long now = System.nanoTime();
+                    if (now - lastDecreaseNanos >= decreaseCooldownNanos) {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                        lastDecreaseNanos = now;
+                    }
+                }
+                case IGNORE -> { }
+            }
+            signalHead();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalHead() {
+        Condition head = waiters.peekFirst();
+        if (head != null && inFlight < (int) limit) {
+            head.signal();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package sasvar.example.chatbot.Utils;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Read-only side of the read/write split: hands out replica connections while the replica
+ * is reachable and its replay lag is under the limit, primary connections otherwise.
+ * refreshLag() is called periodically; a failed connect also flips to the primary until
+ * the next successful check.
+ */
+public class ReplicaLagAwareDataSource extends DelegatingDataSource {
+
+    // 0 when caught up; NULL (→ 0) when the server is not a standby at all,
+    // e.g. two independent local instances used for testing
+    private static final String LAG_SQL = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final DataSource primary;
+    private final double maxLagSeconds;
+
+    private volatile boolean replicaUsable = true;
+    private volatile double lastLagSeconds;
+
+    public ReplicaLagAwareDataSource(DataSource replica, DataSource primary, double maxLagSeconds) {
+        super(replica);
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicaUsable) {
+            try {
+                return super.getConnection();
+            } catch (SQLException e) {
+                replicaUsable = false;
+                System.out.println("Read replica unavailable, routing reads to primary: " + e.getMessage());
+            }
+        }
+        Connection c = primary.getConnection();
+        c.setReadOnly(true);
+        return c;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    public void refreshLag() {
+        try (Connection c = super.getConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(LAG_SQL)) {
+            lastLagSeconds = rs.next() ? rs.getDouble(1) : 0;
+            boolean usable = lastLagSeconds <= maxLagSeconds;
+            if (usable != replicaUsable) {
+                System.out.println("Read replica " + (usable ? "back in rotation" : "lagging")
+                        + " (lag " + lastLagSeconds + "s)");
+            }
+            replicaUsable = usable;
+        } catch (SQLException e) {
+            replicaUsable = false;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public double getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+}
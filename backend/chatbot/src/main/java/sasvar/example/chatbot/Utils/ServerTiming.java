@@ -0,0 +1,122 @@
+package sasvar.example.chatbot.Utils;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Per-request phase timings (gemini, db, bcrypt, jwt, json, django, ...), kept in a
+ * thread local that ServerTimingFilter opens for each request. Code outside a request
+ * (background threads, jobs) pays only a thread-local read.
+ *
+ * Usage: {@code ServerTiming.time("bcrypt", () -> encoder.encode(pw))} or
+ * {@code try (var t = ServerTiming.phase("gemini")) { ... }}.
+ * A phase nested inside an open phase of the same name is not counted twice.
+ * "db" is not timed inline: TimedDataSource records every JDBC round trip under it.
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private static final Span NOOP = () -> { };
+
+    /** Accumulated time of one phase within a request. */
+    public static final class PhaseTotal {
+        private long nanos;
+        private int count;
+
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+
+        public int count() {
+            return count;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, PhaseTotal> phases = new LinkedHashMap<>();
+    private final Set<String> open = new HashSet<>();
+
+    private ServerTiming() {
+    }
+
+    public static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    // null outside a timed request
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public static Span phase(String name) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null || timing.open.contains(name)) return NOOP;
+        timing.open.add(name);
+        long started = System.nanoTime();
+        return () -> {
+            timing.open.remove(name);
+            PhaseTotal total = timing.phases.computeIfAbsent(name, k -> new PhaseTotal());
+            total.nanos += System.nanoTime() - started;
+            total.count++;
+        };
+    }
+
+    public static <T> T time(String name, Supplier<T> work) {
+        try (Span ignored = phase(name)) {
+            return work.get();
+        }
+    }
+
+    public static void time(String name, Runnable work) {
+        try (Span ignored = phase(name)) {
+            work.run();
+        }
+    }
+
+    public double elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    public Map<String, PhaseTotal> phases() {
+        return phases;
+    }
+
+    /**
+     * Server-Timing header value. Basic: "db;dur=12.3, gemini;dur=840.1, total;dur=861.0".
+     * Debug adds each phase's call count as a description: db;dur=12.3;desc="4 calls".
+     */
+    public String header(boolean debug) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, PhaseTotal> e : phases.entrySet()) {
+            sb.append(e.getKey()).append(";dur=").append(format(e.getValue().millis()));
+            if (debug) {
+                int n = e.getValue().count();
+                sb.append(";desc=\"").append(n).append(n == 1 ? " call\"" : " calls\"");
+            }
+            sb.append(", ");
+        }
+        sb.append("total;dur=").append(format(elapsedMillis()));
+        return sb.toString();
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+}
@@ -0,0 +1,264 @@
+package sasvar.example.chatbot.Utils;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Canonical skill dictionary (src/main/resources/skills.dict): stable integer ids,
+ * one canonical name per id and any number of aliases ("ReactJS", "React.js" -> react).
+ * Exact lookups go through a hash map; free text is scanned in one pass with an
+ * Aho-Corasick automaton over every scannable alias, compiled to a full transition
+ * table at startup. Matches must sit on word boundaries and overlapping matches
+ * resolve leftmost-longest ("spring boot" wins over "spring").
+ */
+@Component
+public class SkillDictionary {
+
+    public static final String RESOURCE = "/skills.dict";
+
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final Map<Integer, String> canonicalById = new HashMap<>();
+    private final Map<Integer, List<String>> namesById = new HashMap<>();
+
+    // automaton: delta[state * alphabet + class] -> state; out[state] -> pattern indexes ending there
+    private final byte[] charClass = new byte[128];
+    private final int alphabet;
+    private final int[] delta;
+    private final int[][] out;
+    private final int[] patternId;
+    private final int[] patternLength;
+
+    public SkillDictionary() {
+        this(readResource());
+    }
+
+    SkillDictionary(List<String> lines) {
+        List<String> scannable = new ArrayList<>();
+        List<Integer> scannableIds = new ArrayList<>();
+
+        for (String raw : lines) {
+            String line = raw.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\|", -1);
+            if (parts.length != 3) throw new IllegalStateException("Bad skill dictionary line: " + line);
+            int id = Integer.parseInt(parts[0].strip());
+            if (canonicalById.containsKey(id)) throw new IllegalStateException("Duplicate skill id " + id);
+
+            List<String> names = new ArrayList<>();
+            names.add(parts[1]);
+            names.addAll(Arrays.asList(parts[2].split(",")));
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i).strip();
+                if (name.isEmpty()) continue;
+                boolean exactOnly = name.startsWith("=");
+                String key = normalize(exactOnly ? name.substring(1) : name);
+                if (i == 0) canonicalById.put(id, key);
+                Integer previous = idsByName.put(key, id);
+                if (previous != null && previous != id) {
+                    throw new IllegalStateException("Skill alias '" + key + "' maps to both " + previous + " and " + id);
+                }
+                namesById.computeIfAbsent(id, k -> new ArrayList<>()).add(key);
+                if (!exactOnly) {
+                    scannable.add(key);
+                    scannableIds.add(id);
+                }
+            }
+        }
+
+        // compact alphabet: only ASCII characters that occur in some alias get a class (0 = anything else)
+        int classes = 1;
+        for (String p : scannable) {
+            for (int i = 0; i < p.length(); i++) {
+                char c = p.charAt(i);
+                if (c >= 128) throw new IllegalStateException("Non-ASCII skill alias: " + p);
+                if (charClass[c] == 0) charClass[c] = (byte) classes++;
+            }
+        }
+        alphabet = classes;
+
+        // trie
+        List<int[]> next = new ArrayList<>();
+        List<List<Integer>> outputs = new ArrayList<>();
+        next.add(new int[alphabet]);
+        outputs.add(new ArrayList<>());
+        patternId = new int[scannable.size()];
+        patternLength = new int[scannable.size()];
+        for (int p = 0; p < scannable.size(); p++) {
+            String s = scannable.get(p);
+            int state = 0;
+            for (int i = 0; i < s.length(); i++) {
+                int cls = charClass[s.charAt(i)];
+                if (next.get(state)[cls] == 0) {
+                    next.get(state)[cls] = next.size();
+                    next.add(new int[alphabet]);
+                    outputs.add(new ArrayList<>());
+                }
+                state = next.get(state)[cls];
+            }
+            outputs.get(state).add(p);
+            patternId[p] = scannableIds.get(p);
+            patternLength[p] = s.length();
+        }
+
+        // failure links breadth-first, folded into a complete transition table
+        int states = next.size();
+        delta = new int[states * alphabet];
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < alphabet; cls++) {
+            int child = next.get(0)[cls];
+            delta[cls] = child;
+            if (child != 0) queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs.get(state).addAll(outputs.get(fail[state]));
+            for (int cls = 0; cls < alphabet; cls++) {
+                int child = next.get(state)[cls];
+                if (child != 0) {
+                    fail[child] = delta[fail[state] * alphabet + cls];
+                    delta[state * alphabet + cls] = child;
+                    queue.add(child);
+                } else {
+                    delta[state * alphabet + cls] = delta[fail[state] * alphabet + cls];
+                }
+            }
+        }
+        out = new int[states][];
+        for (int s = 0; s < states; s++) {
+            out[s] = outputs.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public int size() {
+        return canonicalById.size();
+    }
+
+    // canonical id of a skill name or alias, null when unknown
+    public Integer idOf(String term) {
+        return term == null ? null : idsByName.get(normalize(term));
+    }
+
+    public String canonicalName(int id) {
+        return canonicalById.get(id);
+    }
+
+    // canonical name for known skills, otherwise the term lower-cased and trimmed
+    public String canonicalize(String term) {
+        String key = normalize(term);
+        Integer id = idsByName.get(key);
+        return id == null ? key : canonicalById.get(id);
+    }
+
+    // every known spelling of the term's skill (canonical first), or just the term itself
+    public List<String> spellingsOf(String term) {
+        String key = normalize(term);
+        Integer id = idsByName.get(key);
+        return id == null ? List.of(key) : namesById.get(id);
+    }
+
+    // Normalize a skills CSV at write time: known skills become their canonical name,
+    // unknown ones are kept as typed; duplicates (after normalization) are dropped.
+    public String normalizeCsv(String csv) {
+        if (csv == null || csv.isBlank()) return csv;
+        LinkedHashMap<String, String> seen = new LinkedHashMap<>();
+        for (String part : csv.split(",")) {
+            String term = part.strip();
+            if (term.isEmpty()) continue;
+            Integer id = idOf(term);
+            String value = id == null ? term : canonicalById.get(id);
+            seen.putIfAbsent(normalize(value), value);
+        }
+        return String.join(",", seen.values());
+    }
+
+    // Canonical ids of the skills mentioned in free text, in order of first appearance.
+    public int[] scan(CharSequence text) {
+        if (text == null || text.isEmpty()) return new int[0];
+
+        // lower-case and collapse whitespace runs, so aliases match across line breaks and double spaces
+        char[] buf = new char[text.length()];
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isWhitespace(c)) {
+                if (n > 0 && buf[n - 1] == ' ') continue;
+                c = ' ';
+            }
+            buf[n++] = c;
+        }
+
+        // single pass; each candidate match is keyed (start, longest first) for the leftmost-longest pick
+        long[] key = new long[16];
+        int[] skill = new int[16];
+        int count = 0;
+        int state = 0;
+        for (int i = 0; i < n; i++) {
+            char c = buf[i];
+            state = delta[state * alphabet + (c < 128 ? charClass[c] : 0)];
+            for (int p : out[state]) {
+                int start = i + 1 - patternLength[p];
+                if (!boundary(buf, n, start - 1) || !boundary(buf, n, i + 1)) continue;
+                if (count == key.length) {
+                    key = Arrays.copyOf(key, count * 2);
+                    skill = Arrays.copyOf(skill, count * 2);
+                }
+                key[count] = ((long) start << 32) | (Integer.MAX_VALUE - patternLength[p]);
+                skill[count] = patternId[p];
+                count++;
+            }
+        }
+        if (count == 0) return new int[0];
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        long[] keys = key;
+        Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+
+        LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+        int coveredUntil = 0;
+        for (int idx : order) {
+            int start = (int) (key[idx] >>> 32);
+            if (start < coveredUntil) continue;
+            coveredUntil = start + (Integer.MAX_VALUE - (int) key[idx]);
+            ids.add(skill[idx]);
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // canonical names of the skills mentioned in free text
+    public List<String> scanNames(CharSequence text) {
+        int[] ids = scan(text);
+        List<String> names = new ArrayList<>(ids.length);
+        for (int id : ids) names.add(canonicalById.get(id));
+        return names;
+    }
+
+    // a match edge is valid when it does not cut through a word ("java" in "javascript")
+    private static boolean boundary(char[] buf, int n, int pos) {
+        if (pos < 0 || pos >= n) return true;
+        char c = buf[pos];
+        return !Character.isLetterOrDigit(c) && c != '+' && c != '#';
+    }
+
+    private static String normalize(String term) {
+        return term == null ? "" : term.strip().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static List<String> readResource() {
+        try (InputStream in = SkillDictionary.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) throw new IllegalStateException("Missing " + RESOURCE + " on the classpath");
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                return reader.lines().toList();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + RESOURCE, e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package sasvar.example.chatbot.Utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Scores how well a resume's skills cover a project's needs, in [0, 1].
+ * Required skills weigh 1, preferred technologies 0.5, domains 0.25;
+ * the score is the matched weight over the total weight.
+ * Matching is on canonical skill names (SkillDictionary), so "ReactJS" on one side
+ * matches "react" on the other; terms outside the dictionary match when equal after
+ * trimming and lower-casing.
+ */
+public final class SkillMatchScorer {
+
+    private static final double REQUIRED_WEIGHT = 1.0;
+    private static final double PREFERRED_WEIGHT = 0.5;
+    private static final double DOMAIN_WEIGHT = 0.25;
+
+    private final SkillDictionary dictionary;
+    private final Set<String> required;
+    private final Set<String> preferred;
+    private final Set<String> domains;
+    private final double totalWeight;
+
+    public SkillMatchScorer(SkillDictionary dictionary, String requiredCsv, String preferredCsv, String domainCsv) {
+        this.dictionary = dictionary;
+        this.required = terms(dictionary, requiredCsv);
+        this.preferred = terms(dictionary, preferredCsv);
+        this.domains = terms(dictionary, domainCsv);
+        this.totalWeight = required.size() * REQUIRED_WEIGHT
+                + preferred.size() * PREFERRED_WEIGHT
+                + domains.size() * DOMAIN_WEIGHT;
+    }
+
+    // resumeSkills must already be canonical (SkillDictionary.canonicalize)
+    public double score(Collection<String> resumeSkills) {
+        if (totalWeight == 0 || resumeSkills == null || resumeSkills.isEmpty()) return 0;
+        Set<String> have = resumeSkills instanceof Set<String> s ? s : Set.copyOf(resumeSkills);
+        double matched = count(required, have) * REQUIRED_WEIGHT
+                + count(preferred, have) * PREFERRED_WEIGHT
+                + count(domains, have) * DOMAIN_WEIGHT;
+        return matched / totalWeight;
+    }
+
+    // every spelling of every project term, for pre-filtering resumes on their raw skill_tags
+    public Set<String> allTerms() {
+        Set<String> all = new HashSet<>();
+        for (Set<String> terms : List.of(required, preferred, domains)) {
+            for (String term : terms) all.addAll(dictionary.spellingsOf(term));
+        }
+        return all;
+    }
+
+    private static int count(Set<String> wanted, Set<String> have) {
+        int n = 0;
+        for (String w : wanted) {
+            if (have.contains(w)) n++;
+        }
+        return n;
+    }
+
+    private static Set<String> terms(SkillDictionary dictionary, String csv) {
+        if (csv == null || csv.isBlank()) return Set.of();
+        return Arrays.stream(csv.split(","))
+                .filter(s -> !s.isBlank())
+                .map(dictionary::canonicalize)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
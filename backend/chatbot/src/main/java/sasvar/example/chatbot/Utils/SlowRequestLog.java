@@ -0,0 +1,62 @@
+package sasvar.example.chatbot.Utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Ring buffer of the most recent requests slower than server-timing.slow-threshold-ms,
+// each with its phase breakdown; read through GET /api/admin/slow-requests.
+// Writers only bump a counter and store a reference, so recording never blocks a request.
+@Component
+public class SlowRequestLog {
+
+    public record Entry(Instant at,
+                        String method,
+                        String path,
+                        int status,
+                        String user,
+                        double totalMs,
+                        Map<String, Map<String, Object>> phases) {
+    }
+
+    private final long thresholdMs;
+    private final AtomicReferenceArray<Entry> ring;
+    private final AtomicLong next = new AtomicLong();
+
+    public SlowRequestLog(@Value("${server-timing.slow-threshold-ms:500}") long thresholdMs,
+                          @Value("${server-timing.slow-buffer-size:200}") int capacity) {
+        this.thresholdMs = thresholdMs;
+        this.ring = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public void record(String method, String path, int status, String user, ServerTiming timing) {
+        double totalMs = timing.elapsedMillis();
+        if (totalMs < thresholdMs) return;
+
+        Map<String, Map<String, Object>> phases = new LinkedHashMap<>();
+        timing.phases().forEach((name, total) -> phases.put(name, Map.of(
+                "ms", Math.round(total.millis() * 10) / 10.0,
+                "calls", total.count())));
+        Entry entry = new Entry(Instant.now(), method, path, status, user, Math.round(totalMs * 10) / 10.0, phases);
+        ring.set((int) (next.getAndIncrement() % ring.length()), entry);
+    }
+
+    // slowest first
+    public List<Entry> slowest(int limit) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < ring.length(); i++) {
+            Entry e = ring.get(i);
+            if (e != null) entries.add(e);
+        }
+        entries.sort(Comparator.comparingDouble(Entry::totalMs).reversed());
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    public long thresholdMs() {
+        return thresholdMs;
+    }
+}
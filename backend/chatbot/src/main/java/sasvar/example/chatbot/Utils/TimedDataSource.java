@@ -0,0 +1,95 @@
+package sasvar.example.chatbot.Utils;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Set;
+
+/**
+ * Records every JDBC round trip under the "db" Server-Timing phase, so repositories,
+ * JdbcTemplate and Hibernate are timed in one place instead of at each call site.
+ * Timed: getConnection (pool wait), statement preparation (which also opens a lazy
+ * connection), execute*, commit and rollback. Result set reads after execute are not.
+ * Outside a request ServerTiming.phase is a thread-local read, so jobs pay next to nothing.
+ */
+public class TimedDataSource extends DelegatingDataSource {
+
+    private static final String PHASE = "db";
+
+    private static final Set<String> TIMED_CONNECTION_METHODS = Set.of(
+            "createStatement", "prepareStatement", "prepareCall", "commit", "rollback");
+
+    public TimedDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try (var t = ServerTiming.phase(PHASE)) {
+            return wrap(super.getConnection());
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        try (var t = ServerTiming.phase(PHASE)) {
+            return wrap(super.getConnection(username, password));
+        }
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handler(connection, TIMED_CONNECTION_METHODS::contains));
+    }
+
+    private static Object wrapStatement(Object statement, Class<?> type) {
+        return Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(),
+                new Class<?>[]{type},
+                new Handler(statement, name -> name.startsWith("execute")));
+    }
+
+    private interface Timed {
+        boolean test(String methodName);
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private final Object target;
+        private final Timed timed;
+
+        Handler(Object target, Timed timed) {
+            this.target = target;
+            this.timed = timed;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Timed[" + target + "]";
+            }
+            Object result;
+            try (var t = timed.test(method.getName()) ? ServerTiming.phase(PHASE) : null) {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // statements handed out by the connection are timed on execute*
+            if (proxy instanceof Connection) {
+                if (result instanceof CallableStatement) return wrapStatement(result, CallableStatement.class);
+                if (result instanceof PreparedStatement) return wrapStatement(result, PreparedStatement.class);
+                if (result instanceof Statement) return wrapStatement(result, Statement.class);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Idempotency-Key support for the expensive POSTs (resume upload, register, create project).
+-- One row per (endpoint, caller, key): the first request holds it IN_PROGRESS while it runs,
+-- then stores its response so retries are answered from here instead of redoing the work.
+-- Rows expire after the TTL; IdempotencyService purges expired rows and caps the table size.
+
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    key_hash              VARCHAR(64)  PRIMARY KEY,    -- sha-256 of method, path, caller and key
+    fingerprint           VARCHAR(64)  NOT NULL,       -- sha-256 of the request body
+    status                VARCHAR(16)  NOT NULL,       -- IN_PROGRESS | COMPLETED
+    response_status       INTEGER,
+    response_content_type VARCHAR(255),
+    response_body         BYTEA,
+    created_at            TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    locked_at             TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    expires_at            TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_idempotency_key_expires
+    ON idempotency_key (expires_at);
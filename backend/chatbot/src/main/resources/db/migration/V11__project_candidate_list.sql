@@ -0,0 +1,17 @@
+-- Per-project summary of project_candidate: list size and the K-th (lowest listed) score.
+-- RecommendationService reads the floor of the lists a resume might enter from here instead of
+-- aggregating project_candidate on every save, and a row with list_size = 0 records that the
+-- project's list was built and is simply empty (so startup backfill does not rebuild it again).
+
+CREATE TABLE IF NOT EXISTS project_candidate_list (
+    project_id  BIGINT           PRIMARY KEY,
+    list_size   INTEGER          NOT NULL,
+    floor_score DOUBLE PRECISION,                 -- null while the list is empty
+    updated_at  TIMESTAMPTZ      NOT NULL DEFAULT now()
+);
+
+INSERT INTO project_candidate_list (project_id, list_size, floor_score)
+SELECT project_id, count(*), min(score)
+  FROM project_candidate
+ GROUP BY project_id
+ON CONFLICT (project_id) DO NOTHING;
@@ -0,0 +1,6 @@
+-- Bulk resume import must not silently replace an existing user's profile.
+-- An item whose email already has a profile fails unless its manifest / NDJSON line sets
+-- "overwrite": true, which is kept here.
+
+ALTER TABLE resume_import_item
+    ADD COLUMN IF NOT EXISTS overwrite BOOLEAN NOT NULL DEFAULT false;
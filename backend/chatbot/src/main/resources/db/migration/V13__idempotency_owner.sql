@@ -0,0 +1,6 @@
+-- Each claim of an idempotency key gets a fresh owner token. complete/release only touch the
+-- row while it still carries the caller's token, so a request whose lease was taken over
+-- cannot overwrite or delete the new owner's row.
+
+ALTER TABLE idempotency_key
+    ADD COLUMN IF NOT EXISTS owner_token VARCHAR(36);
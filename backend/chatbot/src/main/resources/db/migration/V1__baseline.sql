@@ -0,0 +1,72 @@
+-- Baseline: the schema previously produced by spring.jpa.hibernate.ddl-auto=update.
+-- Every statement is idempotent: existing databases are baselined at version 0
+-- (spring.flyway.baseline-on-migrate), so this also runs on them and only fills gaps.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email    VARCHAR(255) UNIQUE,
+    password VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS resume (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email         VARCHAR(255) NOT NULL UNIQUE,
+    name          VARCHAR(255),
+    year          VARCHAR(255),
+    department    VARCHAR(255),
+    institution   VARCHAR(255),
+    availability  VARCHAR(255),
+    profile_json  JSONB,
+    resume_pdf    BYTEA,
+    resume_sha256 VARCHAR(64),
+    resume_size   BIGINT,
+    created_at    VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS projects (
+    id                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title                  VARCHAR(255) NOT NULL,
+    project_type           VARCHAR(255) NOT NULL,
+    visibility             VARCHAR(255) NOT NULL,
+    required_skills        VARCHAR(255),
+    github_repo            VARCHAR(255),
+    description            TEXT,
+    domain                 VARCHAR(255),
+    preferred_technologies VARCHAR(255),
+    email                  VARCHAR(255) NOT NULL,
+    created_at             VARCHAR(255),
+    status                 VARCHAR(20) DEFAULT 'ACTIVE'
+);
+
+CREATE TABLE IF NOT EXISTS project_team (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    project_id   BIGINT NOT NULL,
+    member_email VARCHAR(255) NOT NULL,
+    added_at     VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS project_team_request (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    project_id      BIGINT NOT NULL,
+    project_title   VARCHAR(255),
+    requester_email VARCHAR(255) NOT NULL,
+    target_email    VARCHAR(255) NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    type            VARCHAR(255),
+    ratee_email     VARCHAR(255),
+    ratee_name      VARCHAR(255),
+    created_at      VARCHAR(255),
+    updated_at      VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS ml_sync_backlog (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    kind       VARCHAR(20) NOT NULL,
+    ref_id     BIGINT NOT NULL,
+    created_at VARCHAR(255),
+    UNIQUE (kind, ref_id)
+);
+
+-- columns added after some databases were created by ddl-auto
+ALTER TABLE resume ADD COLUMN IF NOT EXISTS resume_sha256 VARCHAR(64);
+ALTER TABLE resume ADD COLUMN IF NOT EXISTS resume_size BIGINT;
@@ -0,0 +1,33 @@
+-- Indexes for the columns every listing filters on.
+-- Built CONCURRENTLY so live tables are not write-locked; this script therefore
+-- runs outside a transaction (see V2__filter_indexes.sql.conf).
+
+-- duplicates would block the unique index below; keep the earliest membership row
+DELETE FROM project_team a
+USING project_team b
+WHERE a.project_id = b.project_id
+  AND a.member_email = b.member_email
+  AND a.id > b.id;
+
+-- (project_id, member_email) is unique; the index also serves lookups by project_id alone
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ux_project_team_project_member
+    ON project_team (project_id, member_email);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uq_project_team_project_member') THEN
+        ALTER TABLE project_team
+            ADD CONSTRAINT uq_project_team_project_member UNIQUE USING INDEX ux_project_team_project_member;
+    END IF;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_project_team_member_email
+    ON project_team (member_email);
+
+-- inbox: WHERE target_email = ? [AND status = ? [AND type = ?]]
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_project_team_request_target_status_type
+    ON project_team_request (target_email, status, type);
+
+-- "my projects": WHERE email = ?
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_email
+    ON projects (email);
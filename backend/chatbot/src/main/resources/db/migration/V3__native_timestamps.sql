@@ -0,0 +1,101 @@
+-- Move the ISO-8601 string timestamps (Instant.toString()) to timestamptz.
+-- Online pattern: add *_ts columns, backfill in small committed batches while the app
+-- keeps running, then catch up and swap each table in one short locked statement.
+-- Runs outside a transaction (see V3__native_timestamps.sql.conf) so batches can COMMIT.
+
+ALTER TABLE resume               ADD COLUMN IF NOT EXISTS created_at_ts TIMESTAMPTZ;
+ALTER TABLE projects             ADD COLUMN IF NOT EXISTS created_at_ts TIMESTAMPTZ;
+ALTER TABLE project_team         ADD COLUMN IF NOT EXISTS added_at_ts   TIMESTAMPTZ;
+ALTER TABLE project_team_request ADD COLUMN IF NOT EXISTS created_at_ts TIMESTAMPTZ;
+ALTER TABLE project_team_request ADD COLUMN IF NOT EXISTS updated_at_ts TIMESTAMPTZ;
+ALTER TABLE ml_sync_backlog      ADD COLUMN IF NOT EXISTS created_at_ts TIMESTAMPTZ;
+
+-- backfill <tbl>.<col>_ts from <tbl>.<col> in id ranges, committing after each range
+CREATE OR REPLACE PROCEDURE backfill_timestamptz(tbl TEXT, col TEXT, batch INT DEFAULT 5000)
+LANGUAGE plpgsql AS $$
+DECLARE
+    last_id BIGINT := 0;
+    max_id  BIGINT;
+BEGIN
+    EXECUTE format('SELECT coalesce(max(id), 0) FROM %I', tbl) INTO max_id;
+    WHILE last_id < max_id LOOP
+        EXECUTE format('UPDATE %I SET %I = %I::timestamptz
+                         WHERE id > $1 AND id <= $2 AND %I IS NULL AND %I IS NOT NULL',
+                       tbl, col || '_ts', col, col || '_ts', col)
+            USING last_id, last_id + batch;
+        last_id := last_id + batch;
+        COMMIT;
+    END LOOP;
+END $$;
+
+CALL backfill_timestamptz('resume', 'created_at');
+CALL backfill_timestamptz('projects', 'created_at');
+CALL backfill_timestamptz('project_team', 'added_at');
+CALL backfill_timestamptz('project_team_request', 'created_at');
+CALL backfill_timestamptz('project_team_request', 'updated_at');
+CALL backfill_timestamptz('ml_sync_backlog', 'created_at');
+
+DROP PROCEDURE backfill_timestamptz(TEXT, TEXT, INT);
+
+-- swap: each DO block is one transaction — lock, copy rows written since the backfill, rename
+DO $$
+BEGIN
+    LOCK TABLE resume IN ACCESS EXCLUSIVE MODE;
+    UPDATE resume SET created_at_ts = created_at::timestamptz WHERE created_at_ts IS NULL;
+    ALTER TABLE resume DROP COLUMN created_at;
+    ALTER TABLE resume RENAME COLUMN created_at_ts TO created_at;
+    ALTER TABLE resume ALTER COLUMN created_at SET NOT NULL;
+END $$;
+
+DO $$
+BEGIN
+    LOCK TABLE projects IN ACCESS EXCLUSIVE MODE;
+    UPDATE projects SET created_at_ts = created_at::timestamptz
+     WHERE created_at_ts IS NULL AND created_at IS NOT NULL;
+    ALTER TABLE projects DROP COLUMN created_at;
+    ALTER TABLE projects RENAME COLUMN created_at_ts TO created_at;
+END $$;
+
+DO $$
+BEGIN
+    LOCK TABLE project_team IN ACCESS EXCLUSIVE MODE;
+    UPDATE project_team SET added_at_ts = added_at::timestamptz
+     WHERE added_at_ts IS NULL AND added_at IS NOT NULL;
+    ALTER TABLE project_team DROP COLUMN added_at;
+    ALTER TABLE project_team RENAME COLUMN added_at_ts TO added_at;
+END $$;
+
+DO $$
+BEGIN
+    LOCK TABLE project_team_request IN ACCESS EXCLUSIVE MODE;
+    UPDATE project_team_request SET created_at_ts = created_at::timestamptz
+     WHERE created_at_ts IS NULL AND created_at IS NOT NULL;
+    UPDATE project_team_request SET updated_at_ts = updated_at::timestamptz
+     WHERE updated_at_ts IS NULL AND updated_at IS NOT NULL;
+    ALTER TABLE project_team_request DROP COLUMN created_at;
+    ALTER TABLE project_team_request DROP COLUMN updated_at;
+    ALTER TABLE project_team_request RENAME COLUMN created_at_ts TO created_at;
+    ALTER TABLE project_team_request RENAME COLUMN updated_at_ts TO updated_at;
+END $$;
+
+DO $$
+BEGIN
+    LOCK TABLE ml_sync_backlog IN ACCESS EXCLUSIVE MODE;
+    UPDATE ml_sync_backlog SET created_at_ts = created_at::timestamptz
+     WHERE created_at_ts IS NULL AND created_at IS NOT NULL;
+    ALTER TABLE ml_sync_backlog DROP COLUMN created_at;
+    ALTER TABLE ml_sync_backlog RENAME COLUMN created_at_ts TO created_at;
+END $$;
+
+-- time-window indexes
+-- explore feed: ORDER BY created_at DESC / WHERE created_at >= now() - interval
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_created_at
+    ON projects (created_at);
+
+-- inbox: WHERE target_email = ? AND created_at >= ? ORDER BY created_at DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_project_team_request_target_created
+    ON project_team_request (target_email, created_at);
+
+-- ageing: WHERE created_at < now() - interval '30 days'
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_project_team_request_created_at
+    ON project_team_request (created_at);
@@ -0,0 +1,16 @@
+-- At most one pending JOIN_REQUEST per (project, target), so createTeammateRequest can
+-- insert with ON CONFLICT DO NOTHING instead of check-then-insert.
+-- Runs outside a transaction for CREATE INDEX CONCURRENTLY.
+
+-- keep the oldest of any duplicate pending requests
+DELETE FROM project_team_request a
+USING project_team_request b
+WHERE a.project_id = b.project_id
+  AND a.target_email = b.target_email
+  AND a.status = 'PENDING' AND b.status = 'PENDING'
+  AND a.type = 'JOIN_REQUEST' AND b.type = 'JOIN_REQUEST'
+  AND a.id > b.id;
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ux_project_team_request_pending_join
+    ON project_team_request (project_id, target_email)
+    WHERE status = 'PENDING' AND type = 'JOIN_REQUEST';
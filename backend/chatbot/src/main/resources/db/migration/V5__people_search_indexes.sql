@@ -0,0 +1,81 @@
+-- People search over parsed resumes (resume.profile_json).
+-- skill_tags: every string under skills.* flattened into one lower-cased jsonb array,
+-- so "has all of these skills" is a single @> probe on a GIN index.
+-- experience_overall: extracted for plain btree equality.
+-- domain_levels: experience_level.by_domain with lower-cased levels (keys kept as written),
+-- so by_domain filters are one @> probe as well.
+-- Only values are lower-cased: lowering the whole document text would rename keys too.
+-- The columns are plain (not GENERATED ... STORED, which rewrites the table under an
+-- ACCESS EXCLUSIVE lock); a trigger keeps them current on every write of profile_json and
+-- existing rows are backfilled in small committed batches, as in V3.
+-- Runs outside a transaction (see V5__people_search_indexes.sql.conf) so batches can COMMIT
+-- and the indexes can be built CONCURRENTLY.
+
+ALTER TABLE resume ADD COLUMN IF NOT EXISTS skill_tags         JSONB;
+ALTER TABLE resume ADD COLUMN IF NOT EXISTS experience_overall TEXT;
+ALTER TABLE resume ADD COLUMN IF NOT EXISTS domain_levels      JSONB;
+
+CREATE OR REPLACE FUNCTION resume_skill_tags(doc JSONB) RETURNS JSONB
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT coalesce(jsonb_agg(lower(t.v)), '[]'::jsonb)
+      FROM jsonb_array_elements_text(
+               jsonb_path_query_array(doc, '$.skills.*[*] ? (@.type() == "string")')) AS t(v)
+$$;
+
+CREATE OR REPLACE FUNCTION resume_domain_levels(doc JSONB) RETURNS JSONB
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT coalesce(jsonb_object_agg(d.key, lower(d.value)), '{}'::jsonb)
+      FROM jsonb_each_text(CASE WHEN jsonb_typeof(doc #> '{experience_level,by_domain}') = 'object'
+                                THEN doc #> '{experience_level,by_domain}' END) AS d
+$$;
+
+CREATE OR REPLACE FUNCTION resume_search_columns() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.skill_tags         := resume_skill_tags(NEW.profile_json);
+    NEW.experience_overall := lower(NEW.profile_json #>> '{experience_level,overall}');
+    NEW.domain_levels      := resume_domain_levels(NEW.profile_json);
+    RETURN NEW;
+END $$;
+
+-- installed before the backfill, so rows written while it runs are already current
+DROP TRIGGER IF EXISTS trg_resume_search_columns ON resume;
+CREATE TRIGGER trg_resume_search_columns
+    BEFORE INSERT OR UPDATE OF profile_json ON resume
+    FOR EACH ROW EXECUTE FUNCTION resume_search_columns();
+
+-- backfill in id ranges, committing after each range
+DO $$
+DECLARE
+    last_id BIGINT := 0;
+    max_id  BIGINT;
+BEGIN
+    SELECT coalesce(max(id), 0) INTO max_id FROM resume;
+    WHILE last_id < max_id LOOP
+        UPDATE resume
+           SET skill_tags         = resume_skill_tags(profile_json),
+               experience_overall = lower(profile_json #>> '{experience_level,overall}'),
+               domain_levels      = resume_domain_levels(profile_json)
+         WHERE id > last_id AND id <= last_id + 5000;
+        last_id := last_id + 5000;
+        COMMIT;
+    END LOOP;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_resume_skill_tags
+    ON resume USING GIN (skill_tags jsonb_path_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_resume_domain_levels
+    ON resume USING GIN (domain_levels jsonb_path_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_resume_experience_overall
+    ON resume (experience_overall, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_resume_department_lower
+    ON resume (lower(department), id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_resume_institution_lower
+    ON resume (lower(institution), id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_resume_availability_lower
+    ON resume (lower(availability), id);
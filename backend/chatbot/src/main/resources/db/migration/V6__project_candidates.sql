@@ -0,0 +1,17 @@
+-- Materialized top-K candidate profiles per ACTIVE project, maintained incrementally
+-- by RecommendationService. Reading a project's list is one range scan on ix_project_candidate_rank.
+
+CREATE TABLE IF NOT EXISTS project_candidate (
+    project_id BIGINT           NOT NULL,
+    profile_id BIGINT           NOT NULL,
+    score      DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMPTZ      NOT NULL DEFAULT now(),
+    PRIMARY KEY (project_id, profile_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_project_candidate_rank
+    ON project_candidate (project_id, score DESC, profile_id);
+
+-- "which lists is this resume on" when a resume changes or is removed
+CREATE INDEX IF NOT EXISTS ix_project_candidate_profile
+    ON project_candidate (profile_id);
@@ -0,0 +1,24 @@
+-- Submitted teammate ratings and per-user running aggregates.
+-- user_reputation is updated in place on every submission (count, sum, sum of squares),
+-- so average and variance are O(1) to read; ReputationReconcileJob rebuilds it from rating nightly.
+
+CREATE TABLE IF NOT EXISTS rating (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    project_id  BIGINT       NOT NULL,
+    rater_email VARCHAR(255) NOT NULL,
+    ratee_email VARCHAR(255) NOT NULL,
+    score       INTEGER      NOT NULL CHECK (score BETWEEN 1 AND 5),
+    comment     TEXT,
+    created_at  TIMESTAMPTZ  NOT NULL,
+    CONSTRAINT uq_rating_project_rater_ratee UNIQUE (project_id, rater_email, ratee_email)
+);
+
+CREATE INDEX IF NOT EXISTS ix_rating_ratee_email ON rating (ratee_email);
+
+CREATE TABLE IF NOT EXISTS user_reputation (
+    email         VARCHAR(255) PRIMARY KEY,
+    rating_count  BIGINT       NOT NULL,
+    rating_sum    BIGINT       NOT NULL,
+    rating_sum_sq BIGINT       NOT NULL,
+    updated_at    TIMESTAMPTZ  NOT NULL
+);
@@ -0,0 +1,24 @@
+-- Cold storage for CompactionJob: answered/stale teammate requests and COMPLETED projects
+-- (with their team rows) are moved here in small batches.
+-- Archive tables copy the live column order (LIKE) and append archived_at, so rows move
+-- with "SELECT deleted.*, now()". A column added to a live table later must be added to
+-- its archive table in the same migration.
+
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS completed_at TIMESTAMPTZ;
+UPDATE projects SET completed_at = now() WHERE status = 'COMPLETED' AND completed_at IS NULL;
+
+CREATE TABLE IF NOT EXISTS projects_archive (LIKE projects INCLUDING DEFAULTS);
+ALTER TABLE projects_archive ADD COLUMN IF NOT EXISTS archived_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE TABLE IF NOT EXISTS project_team_archive (LIKE project_team INCLUDING DEFAULTS);
+ALTER TABLE project_team_archive ADD COLUMN IF NOT EXISTS archived_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE TABLE IF NOT EXISTS project_team_request_archive (LIKE project_team_request INCLUDING DEFAULTS);
+ALTER TABLE project_team_request_archive ADD COLUMN IF NOT EXISTS archived_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS ix_projects_archive_email ON projects_archive (email);
+CREATE INDEX IF NOT EXISTS ix_project_team_archive_project ON project_team_archive (project_id);
+CREATE INDEX IF NOT EXISTS ix_project_team_request_archive_target ON project_team_request_archive (target_email);
+
+-- drives the completed-project sweep
+CREATE INDEX IF NOT EXISTS ix_projects_completed_at ON projects (completed_at) WHERE status = 'COMPLETED';
@@ -0,0 +1,41 @@
+-- Admin bulk resume ingestion (ResumeBulkImportService).
+-- An upload is staged into resume_import_item first; workers then claim items in small
+-- chunks (FOR UPDATE SKIP LOCKED), parse them with Gemini and save the profiles. An item's
+-- status is the checkpoint: a paused or interrupted run continues with whatever is not DONE,
+-- and a claim older than the claim timeout is picked up again.
+
+CREATE TABLE IF NOT EXISTS resume_import_run (
+    id           BIGSERIAL    PRIMARY KEY,
+    created_by   VARCHAR(255) NOT NULL,
+    status       VARCHAR(16)  NOT NULL,          -- RUNNING | PAUSED | COMPLETED
+    total        INTEGER      NOT NULL DEFAULT 0,
+    succeeded    INTEGER      NOT NULL DEFAULT 0,
+    failed       INTEGER      NOT NULL DEFAULT 0,
+    gemini_calls INTEGER      NOT NULL DEFAULT 0,
+    created_at   TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    started_at   TIMESTAMPTZ,
+    finished_at  TIMESTAMPTZ,
+    last_error   TEXT
+);
+
+CREATE TABLE IF NOT EXISTS resume_import_item (
+    id           BIGSERIAL    PRIMARY KEY,
+    run_id       BIGINT       NOT NULL REFERENCES resume_import_run (id) ON DELETE CASCADE,
+    source       VARCHAR(255) NOT NULL,          -- zip entry name or "line N"
+    email        VARCHAR(255),                   -- null: taken from the resume text
+    name         VARCHAR(255),
+    year         VARCHAR(255),
+    department   VARCHAR(255),
+    institution  VARCHAR(255),
+    availability VARCHAR(255),
+    resume_text  TEXT,                           -- null: extracted from resume_pdf
+    resume_pdf   BYTEA,
+    status       VARCHAR(16)  NOT NULL DEFAULT 'PENDING',  -- PENDING | CLAIMED | DONE | FAILED
+    claimed_at   TIMESTAMPTZ,
+    error        TEXT,
+    profile_id   BIGINT
+);
+
+-- claim order within a run, and the per-status counts of the progress report
+CREATE INDEX IF NOT EXISTS ix_resume_import_item_run_status
+    ON resume_import_item (run_id, status, id);
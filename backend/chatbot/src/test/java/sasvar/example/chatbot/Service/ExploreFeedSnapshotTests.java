@@ -0,0 +1,159 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import sasvar.example.chatbot.Database.ProjectData;
+import sasvar.example.chatbot.Dto.ProjectFeedItem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExploreFeedSnapshotTests {
+
+	private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void emptySnapshotRendersEmptyArray() {
+		ExploreFeedSnapshot.Snapshot snap = new ExploreFeedSnapshot.Builder().build();
+
+		assertEquals("[]", render(snap, null, null, null));
+		assertEquals("[]", render(snap, 7, null, null));
+		assertEquals("[]", render(snap, null, 0, 10));
+	}
+
+	@Test
+	void rendersNullBeforeTheFirstBuild() {
+		assertNull(new ExploreFeedSnapshot().render(null, null, null));
+	}
+
+	@Test
+	void daysOnlyKeepsRecentProjectsNewestFirst() throws Exception {
+		List<ProjectData> rows = rows();
+		ExploreFeedSnapshot.Snapshot snap = snapshot(rows);
+
+		String json = render(snap, 3, null, null);
+
+		assertEquals(List.of(5, 3, 1), ids(json));
+		assertEquals(dbPath(rows, 3, null, null), json);
+	}
+
+	@Test
+	void pagePastTheEndIsEmpty() throws Exception {
+		List<ProjectData> rows = rows();
+		ExploreFeedSnapshot.Snapshot snap = snapshot(rows);
+
+		assertEquals("[]", render(snap, null, 3, 2));
+		assertEquals("[]", render(snap, 3, 1, 50));
+		assertEquals("[]", render(snap, null, Integer.MAX_VALUE, ExploreFeedSnapshot.MAX_PAGE_SIZE));
+		assertEquals(dbPath(rows, null, 3, 2), render(snap, null, 3, 2));
+	}
+
+	@Test
+	void pageSizeIsCappedAndAtLeastOne() {
+		assertArrayEquals(new int[]{0, ExploreFeedSnapshot.MAX_PAGE_SIZE},
+				ExploreFeedSnapshot.pageBounds(1000, 0, 100_000));
+		assertArrayEquals(new int[]{0, 50}, ExploreFeedSnapshot.pageBounds(1000, 0, null));
+		assertArrayEquals(new int[]{3, 4}, ExploreFeedSnapshot.pageBounds(1000, 3, 0));
+		assertArrayEquals(new int[]{0, 1}, ExploreFeedSnapshot.pageBounds(1000, -2, -5));
+
+		ExploreFeedSnapshot.Builder builder = new ExploreFeedSnapshot.Builder();
+		for (int i = 0; i < ExploreFeedSnapshot.MAX_PAGE_SIZE + 20; i++) {
+			builder.add(ProjectFeedItem.from(project(i + 1L, NOW)), NOW);
+		}
+		ExploreFeedSnapshot.Snapshot snap = builder.build();
+
+		assertEquals(ExploreFeedSnapshot.MAX_PAGE_SIZE, ids(render(snap, null, 0, 100_000)).size());
+		assertEquals(20, ids(render(snap, null, 1, 100_000)).size());
+	}
+
+	@Test
+	void matchesDatabasePathForTheSameRows() throws Exception {
+		List<ProjectData> rows = rows();
+		ExploreFeedSnapshot.Snapshot snap = snapshot(rows);
+
+		Integer[][] cases = {
+				{null, null, null},
+				{null, 0, 2},
+				{null, 1, 2},
+				{null, null, 4},
+				{3, null, null},
+				{3, 0, 2},
+				{3, 1, 2},
+				{30, 0, 4},
+		};
+		for (Integer[] c : cases) {
+			assertEquals(dbPath(rows, c[0], c[1], c[2]), render(snap, c[0], c[1], c[2]),
+					"days=" + c[0] + " page=" + c[1] + " size=" + c[2]);
+		}
+	}
+
+	// ids 1..5 in id order; odd ids are recent, even ids older, id 4 has no createdAt
+	private static List<ProjectData> rows() {
+		List<ProjectData> rows = new ArrayList<>();
+		rows.add(project(1L, NOW.minus(2, ChronoUnit.DAYS)));
+		rows.add(project(2L, NOW.minus(10, ChronoUnit.DAYS)));
+		rows.add(project(3L, NOW.minus(1, ChronoUnit.DAYS)));
+		rows.add(project(4L, null));
+		rows.add(project(5L, NOW.minus(3, ChronoUnit.HOURS)));
+		return rows;
+	}
+
+	private static ProjectData project(Long id, Instant createdAt) {
+		ProjectData p = new ProjectData();
+		p.setId(id);
+		p.setTitle("Project \"" + id + "\"");
+		p.setType("hackathon");
+		p.setVisibility("public");
+		p.setRequiredSkills("java, spring");
+		p.setDescription(id % 2 == 0 ? null : "line one\nline two ✓");
+		p.setDomain("web");
+		p.setStatus("OPEN");
+		p.setEmail("owner" + id + "@example.com");
+		p.setCreatedAt(createdAt);
+		return p;
+	}
+
+	private static ExploreFeedSnapshot.Snapshot snapshot(List<ProjectData> rows) {
+		ExploreFeedSnapshot.Builder builder = new ExploreFeedSnapshot.Builder();
+		for (ProjectData p : rows) builder.add(ProjectFeedItem.from(p), p.getCreatedAt());
+		return builder.build();
+	}
+
+	private static String render(ExploreFeedSnapshot.Snapshot snap, Integer days, Integer page, Integer size) {
+		return new String(ExploreFeedSnapshot.render(snap, days, page, size, NOW), StandardCharsets.UTF_8);
+	}
+
+	// what ProjectController's fallback returns: listRecentProjects (created in the window,
+	// newest first) or listAllProjects (id order), mapped to ProjectFeedItem and paged
+	private String dbPath(List<ProjectData> rows, Integer days, Integer page, Integer size) throws Exception {
+		List<ProjectData> selected = new ArrayList<>(rows);
+		if (days != null && days > 0) {
+			Instant since = NOW.minus(days, ChronoUnit.DAYS);
+			selected.removeIf(p -> p.getCreatedAt() == null || p.getCreatedAt().isBefore(since));
+			selected.sort(Comparator.comparing(ProjectData::getCreatedAt).reversed());
+		}
+		List<ProjectFeedItem> out = selected.stream().map(ProjectFeedItem::from).toList();
+		if (page != null || size != null) {
+			int[] bounds = ExploreFeedSnapshot.pageBounds(out.size(), page, size);
+			out = out.subList(bounds[0], bounds[1]);
+		}
+		return mapper.writeValueAsString(out);
+	}
+
+	private List<Integer> ids(String json) {
+		List<Integer> ids = new ArrayList<>();
+		try {
+			mapper.readTree(json).forEach(n -> ids.add(n.get("id").asInt()));
+		} catch (Exception e) {
+			throw new AssertionError(json, e);
+		}
+		return ids;
+	}
+}
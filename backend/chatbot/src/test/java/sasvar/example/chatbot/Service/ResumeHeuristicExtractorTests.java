@@ -0,0 +1,58 @@
+package sasvar.example.chatbot.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import sasvar.example.chatbot.Utils.SkillDictionary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeHeuristicExtractorTests {
+
+	private final ResumeHeuristicExtractor extractor = new ResumeHeuristicExtractor(new SkillDictionary());
+
+	@Test
+	void extractsHeaderFields() {
+		String text = "JANE DOE | jane.doe@example.com | +91 98765 43210\n"
+				+ "github.com/janedoe  •  https://www.linkedin.com/in/jane-doe\n"
+				+ "Education\n"
+				+ "B.Tech in Computer Science and Engineering, ABC Institute of Technology (2021 - 2025)\n"
+				+ "Currently in 3rd year\n";
+
+		ResumeHeuristicExtractor.Fields f = extractor.extract(text);
+
+		assertEquals("Jane Doe", f.name());
+		assertEquals("jane.doe@example.com", f.email());
+		assertEquals("+91 98765 43210", f.phone());
+		assertEquals("https://github.com/janedoe", f.github());
+		assertEquals("https://www.linkedin.com/in/jane-doe", f.linkedin());
+		assertEquals("Computer Science and Engineering", f.department());
+		assertEquals("3", f.year());
+	}
+
+	@Test
+	void skipsTitleLinesAndYearRanges() {
+		String text = "Resume\n"
+				+ "Name: ravi kumar\n"
+				+ "2019 - 2023\n"
+				+ "Semester 5, ECE\n";
+
+		ResumeHeuristicExtractor.Fields f = extractor.extract(text);
+
+		assertEquals("Ravi Kumar", f.name());
+		assertNull(f.phone());
+		assertEquals("3", f.year());
+		assertEquals("ECE", f.department());
+	}
+
+	@Test
+	void writesProfileShapedJsonWithMarker() throws Exception {
+		JsonNode json = new ObjectMapper().readTree(extractor.extractJson("Jane Doe\njane@example.com\nSkills: ReactJS, Docker, reactjs\n"));
+
+		assertEquals("Jane Doe", json.path("profile").path("name").asText());
+		assertEquals("jane@example.com", json.path("contact").path("email").asText());
+		assertEquals(ResumeHeuristicExtractor.MARKER_VALUE, json.path(ResumeHeuristicExtractor.MARKER_FIELD).asText());
+		assertFalse(json.path("profile").has("year"));
+		assertEquals("[\"react\",\"docker\"]", json.path("skills").path("detected").toString());
+	}
+}
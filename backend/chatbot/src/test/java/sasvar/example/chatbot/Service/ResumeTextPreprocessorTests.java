@@ -0,0 +1,97 @@
+package sasvar.example.chatbot.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeTextPreprocessorTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void removesNoiseAndBoilerplateSections() {
+		ResumeTextPreprocessor preprocessor = new ResumeTextPreprocessor(registry, 3000);
+		String raw = "Jane Doe   | jane@example.com\r\n"
+				+ "Page 1 of 2\n"
+				+ "SKILLS:\n"
+				+ "•   Java,\t\tSpring   Boot\n"
+				+ "​Java,  Spring Boot\n"
+				+ "Jane Doe | jane@example.com\n"
+				+ "References\n"
+				+ "Available on request\n";
+
+		ResumeTextPreprocessor.Result result = preprocessor.prepare(raw);
+
+		assertEquals("Jane Doe | jane@example.com\nSKILLS:\n- Java, Spring Boot", result.text());
+		assertEquals(java.util.List.of("skills"), result.sections());
+		assertTrue(result.bytesOut() < result.bytesIn());
+		assertEquals(1, registry.get("resume.preprocess.bytes.in").summary().count());
+	}
+
+	@Test
+	void deduplicatesWithinSectionsOnly() {
+		ResumeTextPreprocessor preprocessor = new ResumeTextPreprocessor(registry, 3000);
+		String raw = "Jane Doe\n"
+				+ "Contact: jane@example.com\n"
+				+ "Summary\n"
+				+ "Backend developer\n"
+				+ "Skills\n"
+				+ "- Kafka\n"
+				+ "- Docker\n"
+				+ "- Kafka\n"
+				+ "Projects\n"
+				+ "Order service\n"
+				+ "- Kafka\n"
+				+ "- Docker\n"
+				+ "Education\n"
+				+ "B.Tech, 2025\n";
+
+		ResumeTextPreprocessor.Result result = preprocessor.prepare(raw);
+
+		assertEquals("Jane Doe\nContact: jane@example.com\nSummary\nBackend developer\n"
+				+ "Skills\n- Kafka\n- Docker\n"
+				+ "Projects\nOrder service\n- Kafka\n- Docker\n"
+				+ "Education\nB.Tech, 2025", result.text());
+	}
+
+	@Test
+	void dropsRunningHeaderRepeatedAfterPageBreak() {
+		ResumeTextPreprocessor preprocessor = new ResumeTextPreprocessor(registry, 3000);
+		String raw = "Jane Doe | jane@example.com\n"
+				+ "Experience\n"
+				+ "Intern at Acme\n"
+				+ "Built APIs\n"
+				+ "Wrote tests\n"
+				+ "1/2\n"
+				+ "Jane Doe | jane@example.com\n"
+				+ "Projects\n"
+				+ "Order service\n"
+				+ "Payments\n"
+				+ "Search\n";
+
+		ResumeTextPreprocessor.Result result = preprocessor.prepare(raw);
+
+		assertEquals(1, result.text().split("Jane Doe", -1).length - 1);
+		assertTrue(result.text().contains("Projects\nOrder service"));
+	}
+
+	@Test
+	void truncatesToTokenBudgetKeepingHighPrioritySections() {
+		ResumeTextPreprocessor preprocessor = new ResumeTextPreprocessor(registry, 12);
+		String raw = "Interests\nchess and long distance running every weekend\nSkills\nJava Python\n";
+
+		ResumeTextPreprocessor.Result result = preprocessor.prepare(raw);
+
+		assertTrue(result.text().contains("Java Python"));
+		assertFalse(result.text().contains("chess"));
+		assertTrue(result.estimatedTokens() <= 12);
+	}
+
+	@Test
+	void estimatesTokensLocally() {
+		assertEquals(0, ResumeTextPreprocessor.estimateTokens(""));
+		assertEquals(3, ResumeTextPreprocessor.estimateTokens("Java, Go"));
+		assertEquals(3, ResumeTextPreprocessor.estimateTokens("internships"));
+	}
+}
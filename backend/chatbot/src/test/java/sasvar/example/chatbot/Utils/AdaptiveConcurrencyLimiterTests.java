@@ -0,0 +1,37 @@
+package sasvar.example.chatbot.Utils;
+
+import org.junit.jupiter.api.Test;
+import sasvar.example.chatbot.Utils.AdaptiveConcurrencyLimiter.Outcome;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	@Test
+	void halvesOnOverloadAndGrowsBackOnSuccess() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, 0.5, 0);
+
+		assertTrue(limiter.acquire(0));
+		limiter.release(Outcome.DROPPED);
+		assertEquals(4, limiter.getLimit());
+
+		for (int i = 0; i < 20; i++) {
+			assertTrue(limiter.acquire(0));
+			limiter.release(Outcome.SUCCESS);
+		}
+		assertTrue(limiter.getLimit() > 4);
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void queuedCallerGivesUpAfterBudget() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, 0);
+
+		assertTrue(limiter.acquire(0));
+		assertFalse(limiter.acquire(20));
+		assertEquals(0, limiter.getQueueDepth());
+
+		limiter.release(Outcome.IGNORE);
+		assertTrue(limiter.acquire(0));
+	}
+}
@@ -0,0 +1,84 @@
+package sasvar.example.chatbot.Utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingTests {
+
+	@AfterEach
+	void clear() {
+		ServerTiming.end();
+	}
+
+	@Test
+	void accumulatesPhasesAndSkipsNestedSameName() {
+		ServerTiming timing = ServerTiming.begin();
+
+		ServerTiming.time("db", () -> ServerTiming.time("db", () -> "inner"));
+		ServerTiming.time("db", () -> { });
+		try (var t = ServerTiming.phase("gemini")) {
+			ServerTiming.time("json", () -> { });
+		}
+
+		assertEquals(2, timing.phases().get("db").count());
+		assertEquals(1, timing.phases().get("gemini").count());
+		assertEquals(1, timing.phases().get("json").count());
+		assertTrue(timing.phases().get("gemini").millis() >= timing.phases().get("json").millis());
+	}
+
+	@Test
+	void formatsServerTimingHeader() {
+		ServerTiming timing = ServerTiming.begin();
+		ServerTiming.time("bcrypt", () -> { });
+
+		String basic = timing.header(false);
+		assertTrue(basic.matches("bcrypt;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d"), basic);
+		assertTrue(timing.header(true).startsWith("bcrypt;dur="));
+		assertTrue(timing.header(true).contains(";desc=\"1 call\""));
+	}
+
+	@Test
+	void isANoOpOutsideARequest() {
+		assertNull(ServerTiming.current());
+		assertEquals("ok", ServerTiming.time("db", () -> "ok"));
+		assertNull(ServerTiming.current());
+	}
+
+	@Test
+	void timedDataSourceRecordsJdbcRoundTripsAsDb() throws Exception {
+		PreparedStatement statement = fake(PreparedStatement.class, null);
+		Connection connection = fake(Connection.class, statement);
+		DataSource pool = fake(DataSource.class, connection);
+		TimedDataSource dataSource = new TimedDataSource(pool);
+		ServerTiming timing = ServerTiming.begin();
+
+		try (Connection c = dataSource.getConnection();
+			 PreparedStatement ps = c.prepareStatement("SELECT 1")) {
+			ps.executeQuery();
+			ps.setInt(1, 1);
+		}
+
+		// getConnection, prepareStatement, executeQuery; close and setInt are not round trips
+		assertEquals(3, timing.phases().get("db").count());
+	}
+
+	// proxy answering every call with the given value (or the primitive default)
+	@SuppressWarnings("unchecked")
+	private static <T> T fake(Class<T> type, Object answer) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			Class<?> r = method.getReturnType();
+			if (answer != null && r.isInstance(answer)) return answer;
+			if (r == boolean.class) return false;
+			if (r == int.class) return 0;
+			if (r == long.class) return 0L;
+			return null;
+		});
+	}
+}
@@ -0,0 +1,50 @@
+package sasvar.example.chatbot.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillDictionaryTests {
+
+	private final SkillDictionary dictionary = new SkillDictionary();
+
+	@Test
+	void aliasesResolveToOneCanonicalId() {
+		Integer react = dictionary.idOf("react");
+		assertNotNull(react);
+		assertEquals(react, dictionary.idOf("ReactJS"));
+		assertEquals(react, dictionary.idOf(" React.js "));
+		assertEquals(react, dictionary.idOf("react   js"));
+		assertEquals("react", dictionary.canonicalize("React.JS"));
+		assertEquals("some niche tool", dictionary.canonicalize("  Some Niche Tool "));
+		assertTrue(dictionary.spellingsOf("reactjs").containsAll(List.of("react", "reactjs", "react.js")));
+	}
+
+	@Test
+	void normalizesCsvAndDropsDuplicates() {
+		assertEquals("react,node.js,Elixir", dictionary.normalizeCsv("ReactJS, React.js ,NodeJS,,Elixir,react"));
+		assertNull(dictionary.normalizeCsv(null));
+	}
+
+	@Test
+	void scansTextOnWordBoundariesLeftmostLongest() {
+		String text = "Built a SPA in React.js and TypeScript on a Spring Boot\nbackend; "
+				+ "learning JavaScript, C++ and node js. Go to market plan.";
+
+		List<String> names = dictionary.scanNames(text);
+
+		assertEquals(List.of("react", "typescript", "spring boot", "javascript", "c++", "node.js"), names);
+		assertFalse(names.contains("java"));   // only inside "JavaScript"
+		assertFalse(names.contains("go"));     // exact-only alias, never scanned
+	}
+
+	@Test
+	void rejectsConflictingAliases() {
+		assertThrows(IllegalStateException.class,
+				() -> new SkillDictionary(List.of("1|react|reactjs", "2|preact|reactjs")));
+		assertThrows(IllegalStateException.class,
+				() -> new SkillDictionary(List.of("1|react|", "1|vue|")));
+	}
+}